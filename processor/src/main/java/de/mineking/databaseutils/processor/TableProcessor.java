@@ -0,0 +1,299 @@
+package de.mineking.databaseutils.processor;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.*;
+import javax.lang.model.type.*;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+import javax.tools.StandardLocation;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.*;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Generates an <code>EntityAccessor</code> for every class with fields annotated with <code>@Column</code> and a <code>TableFactory</code> for every interface extending <code>Table</code>.
+ * The generated classes are registered as services, so the tables pick them up instead of reflective field access and {@link java.lang.reflect.Proxy}. The column metadata is still read from the fields at runtime.
+ * Classes and fields that are not accessible from their package (like private classes or fields) are skipped and keep using reflection.
+ */
+@SupportedAnnotationTypes("*")
+public class TableProcessor extends AbstractProcessor {
+	private final static String PACKAGE = "de.mineking.databaseutils";
+	private final static String COLUMN = PACKAGE + ".Column";
+	private final static String TABLE = PACKAGE + ".Table";
+
+	private final Set<String> accessors = new TreeSet<>();
+	private final Set<String> tables = new TreeSet<>();
+
+	@Override
+	public SourceVersion getSupportedSourceVersion() {
+		return SourceVersion.latestSupported();
+	}
+
+	@Override
+	public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment round) {
+		if(round.processingOver()) {
+			writeServices(PACKAGE + ".EntityAccessor", accessors);
+			writeServices(PACKAGE + ".TableFactory", tables);
+			return false;
+		}
+
+		var table = processingEnv.getElementUtils().getTypeElement(TABLE);
+		if(table == null) return false;
+
+		var types = new ArrayList<TypeElement>();
+		collect(ElementFilter.typesIn(round.getRootElements()), types);
+
+		for(var type : types) {
+			try {
+				if(type.getKind() == ElementKind.CLASS) generateAccessor(type);
+				else if(type.getKind() == ElementKind.INTERFACE && !type.equals(table) && processingEnv.getTypeUtils().isAssignable(processingEnv.getTypeUtils().erasure(type.asType()), processingEnv.getTypeUtils().erasure(table.asType()))) generateTable(type, table);
+			} catch(IOException e) {
+				processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, "Failed to generate class: " + e.getMessage(), type);
+			}
+		}
+
+		return false;
+	}
+
+	private void collect(Collection<TypeElement> elements, List<TypeElement> target) {
+		for(var element : elements) {
+			target.add(element);
+			collect(ElementFilter.typesIn(element.getEnclosedElements()), target);
+		}
+	}
+
+	private void generateAccessor(TypeElement type) throws IOException {
+		var fields = ElementFilter.fieldsIn(type.getEnclosedElements()).stream()
+				.filter(f -> hasAnnotation(f, COLUMN))
+				.toList();
+
+		if(fields.isEmpty()) return;
+
+		var pkg = processingEnv.getElementUtils().getPackageOf(type);
+		if(!isAccessible(type, pkg) || fields.stream().anyMatch(f -> !isAccessible(f, pkg) || f.getModifiers().contains(Modifier.FINAL) || f.getModifiers().contains(Modifier.STATIC))) {
+			processingEnv.getMessager().printMessage(Diagnostic.Kind.NOTE, "Cannot generate accessor because the class or one of its columns is not accessible, the table will use reflection", type);
+			return;
+		}
+
+		var name = getGeneratedName(type, "Accessor");
+		var entity = erasure(type.asType());
+
+		try(var writer = processingEnv.getFiler().createSourceFile(qualify(pkg, name), type).openWriter()) {
+			header(writer, pkg);
+
+			writer.write("@SuppressWarnings({\"unchecked\", \"rawtypes\"})\n");
+			writer.write("public final class " + name + " implements " + PACKAGE + ".EntityAccessor<" + entity + "> {\n");
+			writer.write("\tprivate final static java.util.List<String> FIELDS = java.util.List.of(" + fields.stream().map(f -> '"' + f.getSimpleName().toString() + '"').collect(Collectors.joining(", ")) + ");\n\n");
+
+			writer.write("\t@Override\n");
+			writer.write("\tpublic Class<" + entity + "> getType() {\n");
+			writer.write("\t\treturn " + entity + ".class;\n");
+			writer.write("\t}\n\n");
+
+			writer.write("\t@Override\n");
+			writer.write("\tpublic java.util.List<String> getFields() {\n");
+			writer.write("\t\treturn FIELDS;\n");
+			writer.write("\t}\n\n");
+
+			writer.write("\t@Override\n");
+			writer.write("\tpublic Object get(" + entity + " object, int field) {\n");
+			writer.write("\t\treturn switch(field) {\n");
+			for(var i = 0; i < fields.size(); i++) writer.write("\t\t\tcase " + i + " -> object." + fields.get(i).getSimpleName() + ";\n");
+			writer.write("\t\t\tdefault -> throw new IndexOutOfBoundsException(field);\n");
+			writer.write("\t\t};\n");
+			writer.write("\t}\n\n");
+
+			writer.write("\t@Override\n");
+			writer.write("\tpublic void set(" + entity + " object, int field, Object value) {\n");
+			writer.write("\t\tswitch(field) {\n");
+			for(var i = 0; i < fields.size(); i++) writer.write("\t\t\tcase " + i + " -> object." + fields.get(i).getSimpleName() + " = (" + erasure(fields.get(i).asType()) + ") value;\n");
+			writer.write("\t\t\tdefault -> throw new IndexOutOfBoundsException(field);\n");
+			writer.write("\t\t}\n");
+			writer.write("\t}\n");
+			writer.write("}\n");
+		}
+
+		accessors.add(qualify(pkg, name));
+	}
+
+	private void generateTable(TypeElement type, TypeElement table) throws IOException {
+		var pkg = processingEnv.getElementUtils().getPackageOf(type);
+		var declared = (DeclaredType) type.asType();
+
+		var methods = ElementFilter.methodsIn(processingEnv.getElementUtils().getAllMembers(type)).stream()
+				.filter(m -> m.getModifiers().contains(Modifier.ABSTRACT))
+				.filter(m -> !((TypeElement) m.getEnclosingElement()).getQualifiedName().contentEquals("java.lang.Object"))
+				.toList();
+
+		var signatures = methods.stream().map(m -> (ExecutableType) processingEnv.getTypeUtils().asMemberOf(declared, m)).toList();
+
+		if(!type.getTypeParameters().isEmpty() || !isAccessible(type, pkg) || signatures.stream().anyMatch(s -> !isAccessible(s, pkg))) {
+			processingEnv.getMessager().printMessage(Diagnostic.Kind.NOTE, "Cannot generate table because the interface or a type used by its methods is not accessible, the table will use a proxy", type);
+			return;
+		}
+
+		var name = getGeneratedName(type, "Table");
+		var tableMethods = ElementFilter.methodsIn(table.getEnclosedElements()).stream().map(this::getSignature).collect(Collectors.toSet());
+
+		try(var writer = processingEnv.getFiler().createSourceFile(qualify(pkg, name), type).openWriter()) {
+			header(writer, pkg);
+
+			writer.write("public final class " + name + " implements " + PACKAGE + ".TableFactory<" + type.getQualifiedName() + "> {\n");
+			writer.write("\t@Override\n");
+			writer.write("\tpublic Class<" + type.getQualifiedName() + "> getType() {\n");
+			writer.write("\t\treturn " + type.getQualifiedName() + ".class;\n");
+			writer.write("\t}\n\n");
+
+			writer.write("\t@Override\n");
+			writer.write("\tpublic " + type.getQualifiedName() + " create(" + TABLE + "<?> table, java.util.function.Function<String, " + PACKAGE + ".QueryMethod> queries) {\n");
+			writer.write("\t\treturn new Implementation(table, queries);\n");
+			writer.write("\t}\n\n");
+
+			writer.write("\t@SuppressWarnings({\"unchecked\", \"rawtypes\"})\n");
+			writer.write("\tprivate final static class Implementation implements " + type.getQualifiedName() + " {\n");
+			writer.write("\t\tprivate final " + TABLE + " table;\n");
+
+			//Methods that are not declared by Table are implemented by query methods, mapped by the index of the method
+			var queries = new LinkedHashMap<Integer, String>();
+			for(var i = 0; i < methods.size(); i++) {
+				if(tableMethods.contains(getSignature(methods.get(i)))) continue;
+
+				queries.put(i, "query" + queries.size());
+				writer.write("\t\tprivate final " + PACKAGE + ".QueryMethod " + queries.get(i) + ";\n");
+			}
+
+			writer.write("\n");
+			writer.write("\t\tImplementation(" + TABLE + "<?> table, java.util.function.Function<String, " + PACKAGE + ".QueryMethod> queries) {\n");
+			writer.write("\t\t\tthis.table = table;\n");
+			for(var e : queries.entrySet()) writer.write("\t\t\tthis." + e.getValue() + " = queries.apply(\"" + getSignature(methods.get(e.getKey())) + "\");\n");
+			writer.write("\t\t}\n");
+
+			for(var i = 0; i < methods.size(); i++) {
+				var method = methods.get(i);
+				var signature = signatures.get(i);
+
+				var parameters = IntStream.range(0, signature.getParameterTypes().size())
+						.mapToObj(p -> "arg" + p)
+						.collect(Collectors.joining(", "));
+
+				var call = queries.containsKey(i)
+						? queries.get(i) + ".invoke(new Object[] {" + parameters + "})"
+						: "table." + method.getSimpleName() + "(" + parameters + ")";
+
+				writer.write("\n");
+				writer.write("\t\t@Override\n");
+				writer.write("\t\tpublic " + declaration(method, signature) + " {\n");
+
+				if(signature.getReturnType().getKind() == TypeKind.VOID) writer.write("\t\t\t" + call + ";\n");
+				else writer.write("\t\t\treturn (" + signature.getReturnType() + ") " + call + ";\n");
+
+				writer.write("\t\t}\n");
+			}
+
+			writer.write("\t}\n");
+			writer.write("}\n");
+		}
+
+		tables.add(qualify(pkg, name));
+	}
+
+	private String declaration(ExecutableElement method, ExecutableType signature) {
+		var result = new StringBuilder();
+
+		if(!signature.getTypeVariables().isEmpty()) {
+			result.append(signature.getTypeVariables().stream()
+					.map(v -> v + (v.getUpperBound().toString().equals("java.lang.Object") ? "" : " extends " + v.getUpperBound()))
+					.collect(Collectors.joining(", ", "<", "> "))
+			);
+		}
+
+		result.append(signature.getReturnType()).append(" ").append(method.getSimpleName()).append("(");
+
+		var parameters = signature.getParameterTypes();
+		for(var i = 0; i < parameters.size(); i++) {
+			if(i > 0) result.append(", ");
+
+			var parameter = parameters.get(i).toString();
+			if(method.isVarArgs() && i == parameters.size() - 1) parameter = parameter.substring(0, parameter.length() - 2) + "...";
+
+			result.append(parameter).append(" arg").append(i);
+		}
+
+		result.append(")");
+
+		if(!signature.getThrownTypes().isEmpty()) result.append(signature.getThrownTypes().stream().map(TypeMirror::toString).collect(Collectors.joining(", ", " throws ", "")));
+
+		return result.toString();
+	}
+
+	/**
+	 * Same format as used at runtime to find the implementation of query methods, like <code>findByName(java.lang.String)</code>
+	 */
+	private String getSignature(ExecutableElement method) {
+		return method.getSimpleName() + method.getParameters().stream().map(p -> erasure(p.asType())).collect(Collectors.joining(",", "(", ")"));
+	}
+
+	private void header(Writer writer, PackageElement pkg) throws IOException {
+		if(!pkg.isUnnamed()) writer.write("package " + pkg.getQualifiedName() + ";\n\n");
+		writer.write("@javax.annotation.processing.Generated(\"" + TableProcessor.class.getName() + "\")\n");
+	}
+
+	private void writeServices(String service, Set<String> implementations) {
+		if(implementations.isEmpty()) return;
+
+		try(var writer = processingEnv.getFiler().createResource(StandardLocation.CLASS_OUTPUT, "", "META-INF/services/" + service).openWriter()) {
+			for(var implementation : implementations) writer.write(implementation + "\n");
+		} catch(IOException e) {
+			processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, "Failed to register generated classes: " + e.getMessage());
+		}
+	}
+
+	private String erasure(TypeMirror type) {
+		return processingEnv.getTypeUtils().erasure(type).toString();
+	}
+
+	private static String getGeneratedName(TypeElement type, String suffix) {
+		var name = new ArrayDeque<String>();
+		for(Element e = type; e instanceof TypeElement; e = e.getEnclosingElement()) name.push(e.getSimpleName().toString());
+
+		name.add(suffix);
+		return String.join("_", name);
+	}
+
+	private static String qualify(PackageElement pkg, String name) {
+		return pkg.isUnnamed() ? name : pkg.getQualifiedName() + "." + name;
+	}
+
+	private static boolean hasAnnotation(Element element, String annotation) {
+		return element.getAnnotationMirrors().stream().anyMatch(a -> ((TypeElement) a.getAnnotationType().asElement()).getQualifiedName().contentEquals(annotation));
+	}
+
+	private boolean isAccessible(Element element, PackageElement pkg) {
+		for(var e = element; e != null && e.getKind() != ElementKind.PACKAGE; e = e.getEnclosingElement()) {
+			if(e.getModifiers().contains(Modifier.PRIVATE)) return false;
+			if(!e.getModifiers().contains(Modifier.PUBLIC) && !processingEnv.getElementUtils().getPackageOf(e).equals(pkg)) return false;
+		}
+
+		return true;
+	}
+
+	private boolean isAccessible(TypeMirror type, PackageElement pkg) {
+		return switch(type.getKind()) {
+			case DECLARED -> isAccessible(((DeclaredType) type).asElement(), pkg) && ((DeclaredType) type).getTypeArguments().stream().allMatch(t -> isAccessible(t, pkg));
+			case ARRAY -> isAccessible(((ArrayType) type).getComponentType(), pkg);
+			case WILDCARD -> Optional.ofNullable(((WildcardType) type).getExtendsBound()).map(t -> isAccessible(t, pkg)).orElse(true) && Optional.ofNullable(((WildcardType) type).getSuperBound()).map(t -> isAccessible(t, pkg)).orElse(true);
+			case EXECUTABLE -> {
+				var executable = (ExecutableType) type;
+				yield isAccessible(executable.getReturnType(), pkg) &&
+						executable.getParameterTypes().stream().allMatch(t -> isAccessible(t, pkg)) &&
+						executable.getThrownTypes().stream().allMatch(t -> isAccessible(t, pkg));
+			}
+			default -> true;
+		};
+	}
+}
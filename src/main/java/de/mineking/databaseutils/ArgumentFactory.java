@@ -1,5 +1,7 @@
 package de.mineking.databaseutils;
 
+import de.mineking.javautils.reflection.ReflectionUtils;
+import org.jdbi.v3.core.Handle;
 import org.jdbi.v3.core.argument.Argument;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
@@ -16,6 +18,15 @@ public interface ArgumentFactory {
 	@NotNull
 	Argument create(@NotNull Table<?> table);
 
+	/**
+	 * @return whether {@link #prepare(Handle, Table)} has to be called in the transaction of the statement before it is executed
+	 */
+	default boolean requiresPreparation() {
+		return false;
+	}
+
+	default void prepare(@NotNull Handle handle, @NotNull Table<?> table) {}
+
 	@NotNull
 	static ArgumentFactory create(@NotNull String name, @Nullable Object value, @NotNull Function<Table<?>, Argument> factory) {
 		return new ArgumentFactory() {
@@ -39,24 +50,108 @@ public interface ArgumentFactory {
 		};
 	}
 
+	/**
+	 * Creates a factory that can also create arguments for other values, which allows using a {@link Where.Parameter} as value.
+	 *
+	 * @param compiler resolves everything that doesn't depend on the value once per table
+	 */
+	@NotNull
+	static ArgumentFactory compiled(@NotNull String name, @Nullable Object value, @NotNull Function<Table<?>, Function<Object, Argument>> compiler) {
+		return new ArgumentFactory() {
+			@NotNull
+			@Override
+			public String getName() {
+				return name;
+			}
+
+			@Nullable
+			@Override
+			public Object getValue() {
+				return value;
+			}
+
+			@NotNull
+			@Override
+			public Argument create(@NotNull Table<?> table) {
+				if(value instanceof Where.Parameter p) throw new IllegalStateException("Parameter '" + p.name() + "' can only be used with Table#prepare");
+				return compiler.apply(table).apply(value);
+			}
+
+			@NotNull
+			@Override
+			public Function<Object, Argument> compile(@NotNull Table<?> table) {
+				return compiler.apply(table);
+			}
+		};
+	}
+
+	/**
+	 * @return a function that creates the argument for any value in place of {@link #getValue()}
+	 */
+	@NotNull
+	default Function<Object, Argument> compile(@NotNull Table<?> table) {
+		throw new IllegalStateException("Condition on column '" + getName() + "' cannot be parameterized");
+	}
+
 	@NotNull
 	static ArgumentFactory createDefault(@NotNull String name, @Nullable Object value) {
-		return create(name, value, table -> {
+		return compiled(name, value, table -> {
 			var f = table.getColumns().get(name);
 			if(f == null) throw new IllegalStateException("Table has no column with name '" + name + "'");
 
 			var type = f.getGenericType();
 			var mapper = table.getManager().getMapper(type, f);
 
-			Object v;
+			return v -> {
+				Object formatted;
 
-			try {
-				v = mapper.format(table.getManager(), type, f, value);
-			} catch(IllegalArgumentException | ClassCastException ex) {
-				v = value;
-			}
+				try {
+					formatted = mapper.format(table.getManager(), type, f, v);
+				} catch(IllegalArgumentException | ClassCastException ex) {
+					formatted = v;
+				}
+
+				return mapper.createArgument(table.getManager(), type, f, formatted);
+			};
+		});
+	}
+
+	@NotNull
+	static ArgumentFactory createComponent(@NotNull String name, @Nullable Object value) {
+		return compiled(name, value, table -> {
+			var f = table.getColumns().get(name);
+			if(f == null) throw new IllegalStateException("Table has no column with name '" + name + "'");
+
+			var type = ReflectionUtils.getActualArrayComponent(f.getGenericType());
+			var mapper = table.getManager().getMapper(type, f);
+
+			return v -> {
+				Object formatted;
+
+				try {
+					formatted = mapper.format(table.getManager(), type, f, v);
+				} catch(IllegalArgumentException | ClassCastException ex) {
+					formatted = v;
+				}
+
+				return mapper.createArgument(table.getManager(), type, f, formatted);
+			};
+		});
+	}
+
+	/**
+	 * Creates a factory that binds a collection of values as array of the column type
+	 */
+	@NotNull
+	static ArgumentFactory createArray(@NotNull String name, @Nullable Object value) {
+		return compiled(name, value, table -> {
+			var f = table.getColumns().get(name);
+			if(f == null) throw new IllegalStateException("Table has no column with name '" + name + "'");
+
+			var type = ReflectionHelpers.getClazz(f.getGenericType()).arrayType();
+			var mapper = table.getManager().getMapper(type, f);
 
-			return mapper.createArgument(table.getManager(), type, f, v);
+			return v -> mapper.createArgument(table.getManager(), type, f, mapper.format(table.getManager(), type, f, v));
 		});
 	}
 }
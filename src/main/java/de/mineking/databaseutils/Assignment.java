@@ -0,0 +1,118 @@
+package de.mineking.databaseutils;
+
+import de.mineking.javautils.ID;
+import org.jdbi.v3.core.argument.Argument;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+public interface Assignment {
+	@NotNull
+	static Assignment set(@NotNull String name, @Nullable Object value) {
+		var id = ID.generate().asString();
+		return new AssignmentImpl("\"" + name + "\" = :" + id, Map.of(id, ArgumentFactory.createDefault(name, value)));
+	}
+
+	@NotNull
+	static Assignment increment(@NotNull String name, @NotNull Number value) {
+		var id = ID.generate().asString();
+		return new AssignmentImpl("\"" + name + "\" = \"" + name + "\" + :" + id, Map.of(id, ArgumentFactory.createDefault(name, value)));
+	}
+
+	@NotNull
+	static Assignment decrement(@NotNull String name, @NotNull Number value) {
+		var id = ID.generate().asString();
+		return new AssignmentImpl("\"" + name + "\" = \"" + name + "\" - :" + id, Map.of(id, ArgumentFactory.createDefault(name, value)));
+	}
+
+	@NotNull
+	static Assignment append(@NotNull String name, @Nullable Object value) {
+		var id = ID.generate().asString();
+		return new AssignmentImpl("\"" + name + "\" = array_append(\"" + name + "\", :" + id + ")", Map.of(id, ArgumentFactory.createComponent(name, value)));
+	}
+
+	@NotNull
+	static Assignment remove(@NotNull String name, @Nullable Object value) {
+		var id = ID.generate().asString();
+		return new AssignmentImpl("\"" + name + "\" = array_remove(\"" + name + "\", :" + id + ")", Map.of(id, ArgumentFactory.createComponent(name, value)));
+	}
+
+	@NotNull
+	static Assignment unsafe(@NotNull String str) {
+		return new AssignmentImpl(str, Collections.emptyMap());
+	}
+
+	@NotNull
+	default Assignment and(@NotNull Assignment other) {
+		var combined = new HashMap<>(values());
+		combined.putAll(other.values());
+
+		return new AssignmentImpl(get() + ", " + other.get(), combined);
+	}
+
+	@NotNull
+	default Assignment andSet(@NotNull String name, @Nullable Object value) {
+		return and(set(name, value));
+	}
+
+	@NotNull
+	default Assignment andIncrement(@NotNull String name, @NotNull Number value) {
+		return and(increment(name, value));
+	}
+
+	@NotNull
+	default Assignment andDecrement(@NotNull String name, @NotNull Number value) {
+		return and(decrement(name, value));
+	}
+
+	@NotNull
+	default Assignment andAppend(@NotNull String name, @Nullable Object value) {
+		return and(append(name, value));
+	}
+
+	@NotNull
+	default Assignment andRemove(@NotNull String name, @Nullable Object value) {
+		return and(remove(name, value));
+	}
+
+	@NotNull
+	Map<String, ArgumentFactory> values();
+
+	default Map<String, Argument> formatValues(@NotNull Table<?> table) {
+		return values().entrySet().stream().collect(Collectors.toMap(Map.Entry::getKey, e -> e.getValue().create(table)));
+	}
+
+	@NotNull
+	String get();
+
+	class AssignmentImpl implements Assignment {
+		private final String str;
+		private final Map<String, ArgumentFactory> values;
+
+		public AssignmentImpl(String str, Map<String, ArgumentFactory> values) {
+			this.str = str;
+			this.values = values;
+		}
+
+		@NotNull
+		@Override
+		public Map<String, ArgumentFactory> values() {
+			return values;
+		}
+
+		@NotNull
+		@Override
+		public String get() {
+			return str;
+		}
+
+		@Override
+		public String toString() {
+			return get();
+		}
+	}
+}
@@ -0,0 +1,122 @@
+package de.mineking.databaseutils;
+
+import org.jdbi.v3.core.argument.Argument;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Creates many tables at once. Existing tables and their indexes are detected with a single catalog query each, and only missing tables are created.
+ * Partitions, migrations and change triggers are still set up table by table.
+ *
+ * @see DatabaseManager#bootstrap()
+ */
+public class Bootstrap {
+	private final DatabaseManager manager;
+	private final List<TableImpl<?>> tables = new ArrayList<>();
+
+	Bootstrap(@NotNull DatabaseManager manager) {
+		this.manager = manager;
+	}
+
+	@NotNull
+	public <O, T extends Table<O>> T add(@NotNull DatabaseManager.TableBuilder<O, T> builder) {
+		var table = builder.get();
+		tables.add((TableImpl<?>) table.getImplementation());
+		return table;
+	}
+
+	/**
+	 * Creates all missing tables in a single transaction
+	 */
+	public void create() {
+		var missing = getMissing();
+
+		if(!missing.isEmpty()) manager.db.useTransaction(handle -> missing.forEach(t -> t.createTable(handle)));
+		tables.stream().filter(TableImpl::isTemporary).forEach(t -> t.useHandle(t::createTable));
+
+		var indexes = getIndexes();
+		tables.forEach(t -> t.initialize(indexes.remove(t.getName().toLowerCase())));
+	}
+
+	/**
+	 * Creates all missing tables in parallel, each on its own connection
+	 */
+	public void create(int parallelism) {
+		var missing = new HashSet<>(getMissing());
+		var indexes = getIndexes();
+		var executor = Executors.newFixedThreadPool(parallelism);
+
+		try {
+			var futures = new ArrayList<Future<?>>();
+
+			for(var table : tables) {
+				var existing = indexes.remove(table.getName().toLowerCase());
+
+				futures.add(executor.submit(() -> {
+					if(missing.contains(table) || table.isTemporary()) table.useHandle(table::createTable);
+					table.initialize(existing);
+				}));
+			}
+
+			RuntimeException error = null;
+
+			for(var future : futures) {
+				try {
+					future.get();
+				} catch(ExecutionException e) {
+					var cause = e.getCause() instanceof RuntimeException r ? r : new RuntimeException(e.getCause());
+
+					if(error == null) error = cause;
+					else error.addSuppressed(cause);
+				} catch(InterruptedException e) {
+					Thread.currentThread().interrupt();
+					throw new RuntimeException(e);
+				}
+			}
+
+			if(error != null) throw error;
+		} finally {
+			executor.shutdown();
+		}
+	}
+
+	@NotNull
+	private String[] getNames() {
+		return tables.stream()
+				.filter(t -> !t.isTemporary())
+				.map(t -> t.getName().toLowerCase())
+				.distinct()
+				.toArray(String[]::new);
+	}
+
+	/**
+	 * Only the first table with a name gets the loaded indexes, because the indexes change once it was initialized. Temporary tables load their own indexes.
+	 */
+	@NotNull
+	private Map<String, Map<String, Indexes.Existing>> getIndexes() {
+		var names = getNames();
+		if(names.length == 0) return new HashMap<>();
+
+		return manager.db.withHandle(handle -> Indexes.load(handle, names));
+	}
+
+	@NotNull
+	private List<TableImpl<?>> getMissing() {
+		var names = getNames();
+		if(names.length == 0) return List.of();
+
+		var existing = new HashSet<>(manager.db.withHandle(handle -> handle.createQuery("select relname from pg_class where relkind in ('r', 'p') and pg_table_is_visible(oid) and relname = any(:names)")
+				.bind("names", (Argument) (position, statement, ctx) -> statement.setArray(position, statement.getConnection().createArrayOf("text", names)))
+				.mapTo(String.class)
+				.list()
+		));
+
+		return tables.stream()
+				.filter(t -> !t.isTemporary() && !existing.contains(t.getName().toLowerCase()))
+				.toList();
+	}
+}
@@ -0,0 +1,55 @@
+package de.mineking.databaseutils;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Map;
+
+public class ChangeEvent<T> {
+	public enum Type {
+		INSERT, UPDATE, DELETE
+	}
+
+	private final Table<T> table;
+	private final Type type;
+	private final Map<String, Object> key;
+	private final T object;
+
+	ChangeEvent(@NotNull Table<T> table, @NotNull Type type, @NotNull Map<String, Object> key, @Nullable T object) {
+		this.table = table;
+		this.type = type;
+		this.key = key;
+		this.object = object;
+	}
+
+	@NotNull
+	public Table<T> getTable() {
+		return table;
+	}
+
+	@NotNull
+	public Type getType() {
+		return type;
+	}
+
+	/**
+	 * @return the values of the key columns of the changed row, as decoded from json
+	 */
+	@NotNull
+	public Map<String, Object> getKey() {
+		return key;
+	}
+
+	/**
+	 * @return the current state of the changed row. This is {@code null} for deleted rows and for subscriptions without hydration
+	 */
+	@Nullable
+	public T getObject() {
+		return object;
+	}
+
+	@Override
+	public String toString() {
+		return type + " " + key;
+	}
+}
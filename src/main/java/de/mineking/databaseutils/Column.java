@@ -17,4 +17,20 @@ public @interface Column {
 	String modifier() default "";
 
 	boolean autoincrement() default false;
+
+	/**
+	 * The text search configuration (like 'english') of a full-text index on this column. The index serves {@link Where#matches(String, String, String)} with the same configuration.
+	 */
+	String textSearch() default "";
+
+	/**
+	 * Creates a trigram index on this column, which serves {@link Where#like(String, Object)}, {@link Where#likeIgnoreCase(String, Object)} and {@link Where#similar(String, String)}. Requires the 'pg_trgm' extension.
+	 */
+	boolean trigram() default false;
+
+	/**
+	 * The method of the {@link #trigram()} index, either {@link Index.Method#GIN} or {@link Index.Method#GIST}.
+	 * Only a GiST index serves {@link Order#similarityTo(String, String)}, but it is larger and slower to update than a GIN index.
+	 */
+	Index.Method trigramMethod() default Index.Method.GIN;
 }
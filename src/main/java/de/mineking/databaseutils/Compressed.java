@@ -0,0 +1,24 @@
+package de.mineking.databaseutils;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Compresses the values of a byte[] or text {@link Column} (like {@link Json}) before they are written. The column keeps its type, compressed values of text columns are stored as base64.
+ * Values are prefixed with a header that identifies the codec, so rows written before the annotation was added are still read correctly. 'jsonb' columns cannot be compressed.
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.FIELD)
+public @interface Compressed {
+	/**
+	 * The minimum size in bytes of values that are compressed. Smaller values are stored uncompressed.
+	 */
+	int threshold() default 512;
+
+	/**
+	 * The name of the {@link Compression.Codec} used to compress new values
+	 */
+	String codec() default "deflate";
+}
@@ -0,0 +1,217 @@
+package de.mineking.databaseutils;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+public final class Compression {
+	public interface Codec {
+		/**
+		 * @return the name used in {@link Compressed#codec()}
+		 */
+		@NotNull
+		String getName();
+
+		/**
+		 * @return the id stored in the header of compressed values. Changing it makes existing values unreadable.
+		 */
+		byte getId();
+
+		@NotNull
+		byte[] compress(@NotNull byte[] data);
+
+		@NotNull
+		byte[] decompress(@NotNull byte[] data, int offset, int length);
+	}
+
+	public final static Codec NONE = new Codec() {
+		@NotNull
+		@Override
+		public String getName() {
+			return "none";
+		}
+
+		@Override
+		public byte getId() {
+			return 0;
+		}
+
+		@NotNull
+		@Override
+		public byte[] compress(@NotNull byte[] data) {
+			return data;
+		}
+
+		@NotNull
+		@Override
+		public byte[] decompress(@NotNull byte[] data, int offset, int length) {
+			return Arrays.copyOfRange(data, offset, offset + length);
+		}
+	};
+
+	public final static Codec DEFLATE = new Codec() {
+		private final ThreadLocal<Deflater> deflater = ThreadLocal.withInitial(Deflater::new);
+		private final ThreadLocal<Inflater> inflater = ThreadLocal.withInitial(Inflater::new);
+
+		@NotNull
+		@Override
+		public String getName() {
+			return "deflate";
+		}
+
+		@Override
+		public byte getId() {
+			return 1;
+		}
+
+		@NotNull
+		@Override
+		public byte[] compress(@NotNull byte[] data) {
+			var deflater = this.deflater.get();
+			deflater.reset();
+			deflater.setInput(data);
+			deflater.finish();
+
+			var out = new ByteArrayOutputStream(Math.max(64, data.length / 4));
+			var buffer = new byte[8192];
+			while(!deflater.finished()) out.write(buffer, 0, deflater.deflate(buffer));
+
+			return out.toByteArray();
+		}
+
+		@NotNull
+		@Override
+		public byte[] decompress(@NotNull byte[] data, int offset, int length) {
+			var inflater = this.inflater.get();
+			inflater.reset();
+			inflater.setInput(data, offset, length);
+
+			var out = new ByteArrayOutputStream(length * 4);
+			var buffer = new byte[8192];
+
+			try {
+				while(!inflater.finished()) {
+					var count = inflater.inflate(buffer);
+					if(count == 0 && inflater.needsInput()) throw new IllegalStateException("Compressed value is truncated");
+					out.write(buffer, 0, count);
+				}
+			} catch(DataFormatException e) {
+				throw new IllegalStateException(e);
+			}
+
+			return out.toByteArray();
+		}
+	};
+
+	//A value never starts with a zero byte followed by these bytes by accident, unless it is binary data
+	private final static byte[] MAGIC = { 0, 'D', 'U', 'Z' };
+
+	//Text columns cannot store the binary header, so compressed text is stored as base64 behind this prefix
+	private final static String TEXT_HEADER = "\u0001DUZ";
+
+	private final static Map<String, Codec> names = new ConcurrentHashMap<>();
+	private final static Codec[] ids = new Codec[256];
+
+	static {
+		register(NONE);
+		register(DEFLATE);
+	}
+
+	private Compression() {}
+
+	public static synchronized void register(@NotNull Codec codec) {
+		var existing = ids[codec.getId() & 0xFF];
+		if(existing != null && existing != codec) throw new IllegalArgumentException("Codec id " + codec.getId() + " is already used by " + existing.getName());
+
+		ids[codec.getId() & 0xFF] = codec;
+		names.put(codec.getName(), codec);
+	}
+
+	@NotNull
+	public static Codec getCodec(@NotNull String name) {
+		var codec = names.get(name);
+		if(codec == null) throw new IllegalArgumentException("Unknown compression codec '" + name + "'");
+		return codec;
+	}
+
+	@Nullable
+	public static byte[] encode(@NotNull Codec codec, int threshold, @Nullable byte[] data) {
+		if(data == null) return null;
+
+		//Small values are stored raw, unless they could be mistaken for an encoded value
+		if(data.length < threshold && !hasHeader(data)) return data;
+
+		var compressed = codec.compress(data);
+		if(compressed.length >= data.length) {
+			if(!hasHeader(data)) return data;
+
+			codec = NONE;
+			compressed = data;
+		}
+
+		var result = new byte[MAGIC.length + 1 + compressed.length];
+		System.arraycopy(MAGIC, 0, result, 0, MAGIC.length);
+		result[MAGIC.length] = codec.getId();
+		System.arraycopy(compressed, 0, result, MAGIC.length + 1, compressed.length);
+
+		return result;
+	}
+
+	@Nullable
+	public static byte[] decode(@Nullable byte[] data) {
+		if(data == null || !hasHeader(data)) return data;
+
+		var codec = ids[data[MAGIC.length] & 0xFF];
+		if(codec == null) throw new IllegalStateException("Value was compressed with unknown codec " + data[MAGIC.length]);
+
+		var offset = MAGIC.length + 1;
+		return codec.decompress(data, offset, data.length - offset);
+	}
+
+	/**
+	 * Same as {@link #encode(Codec, int, byte[])} for text columns. Compressed values are stored as base64, uncompressed values are stored unchanged.
+	 */
+	@Nullable
+	public static String encodeText(@NotNull Codec codec, int threshold, @Nullable String text) {
+		if(text == null) return null;
+
+		var data = text.getBytes(StandardCharsets.UTF_8);
+		if(data.length < threshold && !text.startsWith(TEXT_HEADER)) return text;
+
+		var compressed = Base64.getEncoder().encodeToString(codec.compress(data));
+		if(TEXT_HEADER.length() + 2 + compressed.length() >= text.length()) {
+			if(!text.startsWith(TEXT_HEADER)) return text;
+
+			codec = NONE;
+			compressed = Base64.getEncoder().encodeToString(data);
+		}
+
+		return TEXT_HEADER + HexFormat.of().toHexDigits(codec.getId()) + compressed;
+	}
+
+	@Nullable
+	public static String decodeText(@Nullable String text) {
+		if(text == null || !text.startsWith(TEXT_HEADER)) return text;
+
+		var id = HexFormat.fromHexDigits(text, TEXT_HEADER.length(), TEXT_HEADER.length() + 2);
+		var codec = ids[id];
+		if(codec == null) throw new IllegalStateException("Value was compressed with unknown codec " + id);
+
+		var data = Base64.getDecoder().decode(text.substring(TEXT_HEADER.length() + 2));
+		return new String(codec.decompress(data, 0, data.length), StandardCharsets.UTF_8);
+	}
+
+	private static boolean hasHeader(byte[] data) {
+		return data.length > MAGIC.length && Arrays.equals(data, 0, MAGIC.length, MAGIC, 0, MAGIC.length);
+	}
+}
@@ -14,10 +14,18 @@ import java.lang.reflect.Proxy;
 import java.lang.reflect.Type;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.function.Supplier;
 
@@ -28,14 +36,35 @@ public class DatabaseManager {
 	public static TypeMapper<?, ID> ID_TYPE_MAPPER = TypeMapper.LEGACY_ID_MAPPER; //Use legacy for a few versions to allow users to transition to the new system
 	public static Function<Class<?>, ClassLoader> DEFAULT_LOADER = Class::getClassLoader;
 
+	/**
+	 * The number of values from which {@link Where#valueContainsField(String, java.util.Collection)} joins the values through unnest instead of comparing against the array
+	 */
+	public static int UNNEST_THRESHOLD = 1_000;
+	/**
+	 * The number of values from which {@link Where#valueContainsField(String, java.util.Collection)} loads the values into a temporary table
+	 */
+	public static int TEMPORARY_TABLE_THRESHOLD = 50_000;
+
 	private final Map<String, Object> data = new HashMap<>();
 
 	final List<TypeMapper<?, ?>> mappers = new ArrayList<>();
+	private final Map<List<Object>, TypeMapper<?, ?>> next = new ConcurrentHashMap<>();
+	private volatile int mapperGeneration = 0;
 	final Jdbi db;
 
+	private final Map<String, List<TableImpl<?>>> tables = new ConcurrentHashMap<>();
+	private final NotificationListener listener = new NotificationListener(this);
+	final Replicas replicas = new Replicas(this);
+	private InvalidationBus invalidation;
+
+	private ScheduledExecutorService writeBehind;
+	private Thread shutdownHook;
+
 	public DatabaseManager(@NotNull String host, @NotNull String user, @NotNull String password) {
 		db = Jdbi.create(host, user, password);
 
+		mappers.add(TypeMapper.COMPRESSED);
+		mappers.add(TypeMapper.JSONB);
 		mappers.add(TypeMapper.JSON);
 		mappers.add(TypeMapper.SERIAL);
 		mappers.add(TypeMapper.INTEGER);
@@ -44,10 +73,13 @@ public class DatabaseManager {
 		mappers.add(TypeMapper.BLOB);
 		mappers.add(TypeMapper.BOOLEAN);
 		mappers.add(TypeMapper.STRING);
+		mappers.add(TypeMapper.OFFSET_DATE_TIME);
 		mappers.add(TypeMapper.TIMESTAMP);
 		mappers.add(TypeMapper.UUID);
 		mappers.add(TypeMapper.OPTIONAL);
+		mappers.add(TypeMapper.ORDINAL_ENUM);
 		mappers.add(TypeMapper.ENUM);
+		mappers.add(TypeMapper.PRIMITIVE_ARRAY);
 		mappers.add(TypeMapper.ARRAY);
 		mappers.add(ID_TYPE_MAPPER);
 	}
@@ -57,12 +89,136 @@ public class DatabaseManager {
 		return db;
 	}
 
+	/**
+	 * @return the replicas reads of tables are routed to
+	 */
+	@NotNull
+	public Replicas getReplicas() {
+		return replicas;
+	}
+
+	@NotNull
+	public DatabaseManager addReplica(@NotNull String host, @NotNull String user, @NotNull String password) {
+		replicas.add(host, user, password);
+		return this;
+	}
+
+	/**
+	 * Registers a handler for notifications sent on the provided channel. All channels share a single dedicated connection.
+	 */
+	@NotNull
+	public DatabaseManager listen(@NotNull String channel, @NotNull Consumer<String> handler) {
+		listener.listen(channel, handler);
+		return this;
+	}
+
+	/**
+	 * @return a future that completes once notifications on the provided channel are received
+	 */
+	@NotNull
+	public CompletableFuture<Void> listening(@NotNull String channel) {
+		return listener.listening(channel);
+	}
+
+	@NotNull
+	public DatabaseManager unlisten(@NotNull String channel, @NotNull Consumer<String> handler) {
+		listener.unlisten(channel, handler);
+		return this;
+	}
+
+	/**
+	 * Publishes writes of all tables of this manager to other nodes and applies their writes to the local caches.
+	 *
+	 * @param interval the interval in which pending invalidations are combined and sent
+	 */
+	@NotNull
+	public synchronized InvalidationBus enableInvalidation(@NotNull String channel, @NotNull Duration interval) {
+		if(invalidation != null) throw new IllegalStateException("Invalidation is already enabled");
+		return invalidation = new InvalidationBus(this, channel, interval);
+	}
+
+	@NotNull
+	public InvalidationBus enableInvalidation() {
+		return enableInvalidation(InvalidationBus.DEFAULT_CHANNEL, Duration.ofMillis(100));
+	}
+
+	@Nullable
+	public InvalidationBus getInvalidationBus() {
+		return invalidation;
+	}
+
+	@NotNull
+	List<TableImpl<?>> getTables(@NotNull String name) {
+		return tables.getOrDefault(name, List.of());
+	}
+
+	/**
+	 * Clears the caches of all tables of this manager
+	 */
+	void invalidateLocal() {
+		tables.values().forEach(tables -> tables.forEach(TableImpl::invalidateLocal));
+	}
+
+	void remove(@NotNull TableImpl<?> table) {
+		tables.computeIfPresent(table.getName(), (name, tables) -> {
+			tables.remove(table);
+			return tables.isEmpty() ? null : tables;
+		});
+	}
+
+	/**
+	 * All tables with buffered updates share one thread and one shutdown hook that flushes their buffers
+	 */
+	@NotNull
+	synchronized ScheduledExecutorService getWriteBehindExecutor() {
+		if(writeBehind == null) {
+			writeBehind = Executors.newSingleThreadScheduledExecutor(r -> {
+				var thread = new Thread(r, "DatabaseUtils-WriteBehind");
+				thread.setDaemon(true);
+				return thread;
+			});
+
+			shutdownHook = new Thread(() -> tables.values().forEach(tables -> tables.forEach(TableImpl::flush)), "DatabaseUtils-WriteBehind-Shutdown");
+			Runtime.getRuntime().addShutdownHook(shutdownHook);
+		}
+
+		return writeBehind;
+	}
+
+	public void close() {
+		tables.values().forEach(tables -> tables.forEach(TableImpl::close));
+
+		synchronized(this) {
+			if(writeBehind != null) {
+				writeBehind.shutdown();
+
+				try {
+					Runtime.getRuntime().removeShutdownHook(shutdownHook);
+				} catch(IllegalStateException ignored) {
+					//Already shutting down, the hook flushes the buffers
+				}
+			}
+		}
+
+		if(invalidation != null) invalidation.close();
+		listener.close();
+	}
+
 	@NotNull
 	public DatabaseManager addMapper(@NotNull TypeMapper<?, ?> mapper) {
 		mappers.add(0, mapper);
+		next.clear();
+		mapperGeneration++;
 		return this;
 	}
 
+	/**
+	 * Changes whenever a mapper is added, so tables know that their resolved mappers might be outdated
+	 */
+	int getMapperGeneration() {
+		return mapperGeneration;
+	}
+
 	@SuppressWarnings("unchecked")
 	@NotNull
 	public <T, R> TypeMapper<T, R> getMapper(@NotNull Type type, @NotNull Field f) {
@@ -71,6 +227,19 @@ public class DatabaseManager {
 				.findFirst().orElseThrow(() -> new IllegalStateException("No mapper found for " + type));
 	}
 
+	/**
+	 * @return the mapper that would handle the type if the provided mapper didn't exist. This allows mappers to wrap other mappers.
+	 */
+	@SuppressWarnings("unchecked")
+	@NotNull
+	public <T, R> TypeMapper<T, R> getNextMapper(@NotNull TypeMapper<?, ?> current, @NotNull Type type, @NotNull Field f) {
+		return (TypeMapper<T, R>) next.computeIfAbsent(List.of(current, type, f), k -> mappers.stream()
+				.dropWhile(m -> m != current).skip(1)
+				.filter(m -> m.accepts(this, type, f))
+				.findFirst().orElseThrow(() -> new IllegalStateException("No mapper found for " + type))
+		);
+	}
+
 	@NotNull
 	public DataType getType(@NotNull Type type, @NotNull Field field) {
 		return getMapper(type, field).getType(this, type, field);
@@ -106,6 +275,21 @@ public class DatabaseManager {
 		private Class<? extends Table<O>> table;
 		private ClassLoader loader;
 
+		private Duration cacheDuration;
+		private int cacheSize;
+
+		private boolean notifyChanges;
+		private boolean dirtyTracking;
+		private boolean migrate;
+		private Partitioning partitioning;
+		private boolean unlogged;
+		private boolean temporary;
+
+		private Duration writeBehindStaleness;
+		private int writeBehindBatchSize;
+		private int writeBehindCapacity;
+		private BiConsumer<O, Exception> writeBehindFailure;
+
 		public TableBuilder(Class<O> type, Supplier<O> instance) {
 			this.type = type;
 			this.instance = instance;
@@ -123,6 +307,105 @@ public class DatabaseManager {
 			return this;
 		}
 
+		/**
+		 * Caches the results of {@link Table#selectMany(Where, Order)}. The cache is cleared whenever the table is written through this library.
+		 * The column values of the rows are cached, and every call creates new objects from them. Cached results are always loaded from the primary, even if the manager has replicas.
+		 *
+		 * @param duration the time after which a cached result expires
+		 * @param maxRows  the maximum number of rows held by the cache across all cached results
+		 */
+		@NotNull
+		public TableBuilder<O, T> cache(@NotNull Duration duration, int maxRows) {
+			this.cacheDuration = duration;
+			this.cacheSize = maxRows;
+			return this;
+		}
+
+		/**
+		 * Installs the trigger required for {@link Table#subscribe(Where, Consumer)} when the table is created.
+		 */
+		@NotNull
+		public TableBuilder<O, T> notifyChanges() {
+			this.notifyChanges = true;
+			return this;
+		}
+
+		/**
+		 * Adds missing columns to an existing table when it is created. See {@link SchemaMigration} for details.
+		 */
+		@NotNull
+		public TableBuilder<O, T> migrate() {
+			this.migrate = true;
+			return this;
+		}
+
+		/**
+		 * Creates the table as 'unlogged'. Writes skip the write-ahead log, which makes them a lot faster, but the table is emptied after a crash and not replicated.
+		 */
+		@NotNull
+		public TableBuilder<O, T> unlogged() {
+			this.unlogged = true;
+			return this;
+		}
+
+		/**
+		 * Creates the table as 'temporary' table that only exists until the table or the manager is closed. All statements of the table use a single dedicated connection.
+		 */
+		@NotNull
+		public TableBuilder<O, T> temporary() {
+			this.temporary = true;
+			return this;
+		}
+
+		/**
+		 * Creates the table as partitioned table. Conditions on the partition column allow queries to skip partitions.
+		 */
+		@NotNull
+		public TableBuilder<O, T> partitionBy(@NotNull Partitioning partitioning) {
+			this.partitioning = partitioning;
+			return this;
+		}
+
+		/**
+		 * Remembers the column values of every object read from the table, so that {@link Table#update(Object)} only writes modified columns and skips unmodified objects entirely.
+		 * This changes the behavior of update for rows that were modified by other sources after they were read.
+		 */
+		@NotNull
+		public TableBuilder<O, T> dirtyTracking() {
+			this.dirtyTracking = true;
+			return this;
+		}
+
+		/**
+		 * Buffers {@link Table#update(Object)} calls in memory and writes them as batched updates. Repeated updates of the same row are combined.
+		 * Buffered updates don't check unique constraints and are not visible to reads until they are flushed. They are flushed on shutdown, when the manager is closed, by {@link Table#flush()} and before deletes and updates by condition of this table. Updates after the manager was closed are written immediately.
+		 * Buffered updates never insert rows. Updates of rows that were deleted in the meantime fail with a {@link de.mineking.databaseutils.exception.ConflictException}.
+		 * Tables with a {@link Version} column cannot buffer updates, because buffered updates cannot be checked against the version of the row.
+		 *
+		 * @param maxStaleness the maximum time an update stays in the buffer
+		 * @param batchSize    the number of buffered rows that triggers a flush
+		 * @param capacity     the maximum number of buffered rows. Callers that exceed it have to wait for the buffer to be flushed
+		 */
+		@NotNull
+		public TableBuilder<O, T> writeBehind(@NotNull Duration maxStaleness, int batchSize, int capacity) {
+			return writeBehind(maxStaleness, batchSize, capacity, null);
+		}
+
+		/**
+		 * @param onFailure called with buffered rows that could not be written, after they were removed from the buffer. Failed rows are logged if this is {@code null}
+		 * @see #writeBehind(Duration, int, int)
+		 */
+		@NotNull
+		public TableBuilder<O, T> writeBehind(@NotNull Duration maxStaleness, int batchSize, int capacity, @Nullable BiConsumer<O, Exception> onFailure) {
+			if(batchSize <= 0 || capacity < batchSize) throw new IllegalArgumentException("The capacity has to be at least the positive batch size");
+
+			this.writeBehindStaleness = maxStaleness;
+			this.writeBehindBatchSize = batchSize;
+			this.writeBehindCapacity = capacity;
+			this.writeBehindFailure = onFailure;
+			return this;
+		}
+
 		@NotNull
 		@SuppressWarnings("unchecked")
 		public <N extends Table<O>> TableBuilder<O, N> table(@NotNull Class<N> table) {
@@ -133,10 +416,24 @@ public class DatabaseManager {
 		@NotNull
 		@SuppressWarnings("unchecked")
 		public T get() {
+			var impl = new TableImpl<>(DatabaseManager.this, new TableConfig<>(
+					type, instance, name == null ? type.getSimpleName().toLowerCase() : name, table,
+					cacheDuration, cacheSize,
+					notifyChanges, dirtyTracking, migrate, partitioning, unlogged, temporary,
+					writeBehindStaleness, writeBehindBatchSize, writeBehindCapacity, writeBehindFailure
+			));
+			//Other tables are not referenced by the manager, so they can be garbage collected
+			if(impl.hasResources()) tables.computeIfAbsent(impl.getName(), n -> new CopyOnWriteArrayList<>()).add(impl);
+
+			if(table == null) return (T) impl;
+
+			var factory = Generated.getTable(table);
+			if(factory != null) return (T) factory.create(impl, impl::getQuery);
+
 			return (T) Proxy.newProxyInstance(
 					loader == null ? DEFAULT_LOADER.apply(type) : loader,
-					new Class<?>[] { table == null ? Table.class : table },
-					new TableImpl<>(DatabaseManager.this, type, instance, name == null ? type.getSimpleName().toLowerCase() : name)
+					new Class<?>[] { table },
+					impl
 			);
 		}
 
@@ -148,6 +445,14 @@ public class DatabaseManager {
 		}
 	}
 
+	/**
+	 * Collects tables to create them together. Use this instead of calling {@link TableBuilder#create()} for many tables on startup.
+	 */
+	@NotNull
+	public Bootstrap bootstrap() {
+		return new Bootstrap(this);
+	}
+
 	@NotNull
 	public <O> TableBuilder<O, ?> getTable(@NotNull Class<O> type, @NotNull Supplier<O> instance) {
 		return new TableBuilder<>(type, instance);
@@ -0,0 +1,26 @@
+package de.mineking.databaseutils;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.List;
+
+/**
+ * Reads and writes the columns of an entity with direct field access instead of {@link java.lang.reflect.Field#get(Object)} and {@link java.lang.reflect.Field#set(Object, Object)}. Implementations are generated at compile time by the <code>DatabaseUtils-processor</code> annotation processor and found with {@link java.util.ServiceLoader}.
+ * Tables use the accessor of their type automatically when one is available. The column metadata (names, annotations and generic types) is still read from the {@link java.lang.reflect.Field}s when the table is created, because type mappers need it.
+ */
+public interface EntityAccessor<T> {
+	@NotNull
+	Class<T> getType();
+
+	/**
+	 * @return the names of the fields annotated with {@link Column} in declaration order. The index of a field in this list is used by {@link #get(Object, int)} and {@link #set(Object, int, Object)}
+	 */
+	@NotNull
+	List<String> getFields();
+
+	@Nullable
+	Object get(@NotNull T object, int field);
+
+	void set(@NotNull T object, int field, @Nullable Object value);
+}
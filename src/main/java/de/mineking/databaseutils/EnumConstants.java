@@ -0,0 +1,38 @@
+package de.mineking.databaseutils;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+class EnumConstants {
+	private final static ClassValue<Enum<?>[]> constants = new ClassValue<>() {
+		@Override
+		protected Enum<?>[] computeValue(Class<?> type) {
+			return (Enum<?>[]) type.getEnumConstants();
+		}
+	};
+
+	private final static ClassValue<Map<String, Enum<?>>> names = new ClassValue<>() {
+		@Override
+		protected Map<String, Enum<?>> computeValue(Class<?> type) {
+			return Arrays.stream(constants.get(type)).collect(Collectors.toUnmodifiableMap(Enum::name, Function.identity()));
+		}
+	};
+
+	private EnumConstants() {}
+
+	@Nullable
+	static Enum<?> byName(@NotNull Class<?> type, @NotNull String name) {
+		return names.get(type).get(name);
+	}
+
+	@Nullable
+	static Enum<?> byOrdinal(@NotNull Class<?> type, int ordinal) {
+		var values = constants.get(type);
+		return ordinal >= 0 && ordinal < values.length ? values[ordinal] : null;
+	}
+}
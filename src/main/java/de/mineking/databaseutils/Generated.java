@@ -0,0 +1,59 @@
+package de.mineking.databaseutils;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.ServiceConfigurationError;
+import java.util.ServiceLoader;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Registry of the classes generated by the annotation processor, loaded once per class loader
+ */
+class Generated {
+	private final static Map<ClassLoader, Generated> registries = new ConcurrentHashMap<>();
+
+	private final Map<Class<?>, Object> accessors = new HashMap<>();
+	private final Map<Class<?>, Object> tables = new HashMap<>();
+
+	private Generated(ClassLoader loader) {
+		load(ServiceLoader.load(EntityAccessor.class, loader), accessors);
+		load(ServiceLoader.load(TableFactory.class, loader), tables);
+	}
+
+	@SuppressWarnings("rawtypes")
+	private static void load(ServiceLoader<?> loader, Map<Class<?>, Object> target) {
+		var iterator = loader.iterator();
+
+		while(true) {
+			try {
+				if(!iterator.hasNext()) break;
+
+				var service = iterator.next();
+				target.put(service instanceof EntityAccessor a ? a.getType() : ((TableFactory) service).getType(), service);
+			} catch(ServiceConfigurationError e) {
+				//Generated classes of an outdated build are ignored, the table falls back to reflection
+				DatabaseManager.logger.warn("Failed to load generated class", e);
+			}
+		}
+	}
+
+	private static Generated of(Class<?> type) {
+		var loader = type.getClassLoader() == null ? ClassLoader.getSystemClassLoader() : type.getClassLoader();
+		return registries.computeIfAbsent(loader, Generated::new);
+	}
+
+	@Nullable
+	@SuppressWarnings("unchecked")
+	static <T> EntityAccessor<T> getAccessor(@NotNull Class<T> type) {
+		return (EntityAccessor<T>) of(type).accessors.get(type);
+	}
+
+	@Nullable
+	@SuppressWarnings("unchecked")
+	static <T extends Table<?>> TableFactory<T> getTable(@NotNull Class<T> type) {
+		return (TableFactory<T>) of(type).tables.get(type);
+	}
+}
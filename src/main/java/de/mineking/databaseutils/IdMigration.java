@@ -0,0 +1,253 @@
+package de.mineking.databaseutils;
+
+import de.mineking.javautils.ID;
+import org.jdbi.v3.core.Handle;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Migrates a column of legacy string {@link ID}s to the 'bigint' representation used by {@link TypeMapper#ID_MAPPER}.
+ * <p>
+ * The values are converted by the database in key-ordered batches, each in its own transaction, and written to a new column. Rows that already have a converted value are skipped, so an interrupted migration can be continued by running it again.
+ * Ids that only consist of zeros are no valid ids. The mappers generate a new id when they write such an id, so the migration does the same.
+ * {@link #swap()} finally replaces the old column with the new one.
+ */
+public class IdMigration {
+	public interface Progress {
+		void update(long converted, long total);
+	}
+
+	private record Batch(long count, String last) {}
+
+	private final Table<?> table;
+	private final String column;
+	private final String target;
+
+	private int batchSize = 10_000;
+	private Progress progress;
+
+	public IdMigration(@NotNull Table<?> table, @NotNull String column) {
+		this.table = table;
+		this.column = column;
+		this.target = column + "_migration";
+
+		this.progress = (converted, total) -> DatabaseManager.logger.info("Converted {}/{} ids of {}.{}", converted, total, table.getName(), column);
+	}
+
+	@NotNull
+	public IdMigration batchSize(int batchSize) {
+		if(batchSize <= 0) throw new IllegalArgumentException("batchSize has to be positive");
+
+		this.batchSize = batchSize;
+		return this;
+	}
+
+	@NotNull
+	public IdMigration onProgress(@NotNull Progress progress) {
+		this.progress = progress;
+		return this;
+	}
+
+	/**
+	 * Converts all rows and replaces the old column
+	 */
+	public void migrate() {
+		run();
+		swap();
+	}
+
+	/**
+	 * Converts all rows that were not converted yet. The old column stays unchanged and can still be used while the migration runs.
+	 *
+	 * @return the number of converted rows
+	 */
+	public long run() {
+		var db = table.getManager().getDriver();
+		var alphabet = getAlphabet();
+
+		db.useHandle(handle -> handle.createUpdate("alter table <name> add column if not exists <target> bigint")
+				.define("name", table.getName())
+				.define("target", target)
+				.execute()
+		);
+
+		var invalid = db.withHandle(handle -> handle.createQuery("select count(*) from <name> where <target> is null and <column> !~ :pattern")
+				.define("name", table.getName())
+				.define("target", target)
+				.define("column", column)
+				.bind("pattern", "^[" + alphabet.replaceAll("[^a-zA-Z0-9]", "\\\\$0") + "]+$")
+				.mapTo(long.class)
+				.one()
+		);
+		if(invalid > 0) throw new IllegalStateException(invalid + " rows of " + table.getName() + " contain invalid ids");
+
+		var total = db.withHandle(handle -> handle.createQuery("select count(*) from <name> where <target> is null and <column> is not null")
+				.define("name", table.getName())
+				.define("target", target)
+				.define("column", column)
+				.mapTo(long.class)
+				.one()
+		);
+
+		long converted = 0;
+		String last = "";
+
+		while(true) {
+			var from = last;
+			var batch = db.inTransaction(handle -> convert(handle, alphabet, from));
+			if(batch.count() == 0) break;
+
+			last = batch.last();
+			progress.update(converted += batch.count(), total);
+		}
+
+		//Rows that were inserted with smaller ids while the migration was running
+		while(true) {
+			var batch = db.inTransaction(handle -> convert(handle, alphabet, null));
+			if(batch.count() == 0) break;
+
+			progress.update(converted += batch.count(), total);
+		}
+
+		while(true) {
+			var count = db.inTransaction(handle -> handle.createUpdate("update <name> set <target> = :id where (tableoid, ctid) = (select tableoid, ctid from <name> where <column> ~ '^0+$' and <target> is null limit 1 for update)")
+					.define("name", table.getName())
+					.define("target", target)
+					.define("column", column)
+					.bind("id", ID.generate().asNumber())
+					.execute()
+			);
+			if(count == 0) break;
+
+			progress.update(++converted, total);
+		}
+
+		return converted;
+	}
+
+	/**
+	 * @param last the last converted id or {@code null} to convert the remaining rows regardless of their id
+	 */
+	private Batch convert(Handle handle, String alphabet, String last) {
+		var query = handle.createQuery("""
+						with updated as (
+							update <name> set <target> = (select sum((strpos(:alphabet, substr(<column>, i, 1)) - 1) * power(<base>::numeric, length(<column>) - i)) from generate_series(1, length(<column>)) i)::bigint
+							where <column> in (select <column> from <name> where <condition> <target> is null and <column> is not null and <column> !~ '^0+$' order by <column> limit :limit for update)
+							returning <column>
+						)
+						select count(*), max(<column>) from updated
+						""")
+				.define("name", table.getName())
+				.define("target", target)
+				.define("column", column)
+				.define("base", alphabet.length())
+				.define("condition", last == null ? "" : column + " > :last and")
+				.bind("alphabet", alphabet)
+				.bind("limit", batchSize);
+
+		if(last != null) query.bind("last", last);
+		return query.map((set, ctx) -> new Batch(set.getLong(1), set.getString(2))).one();
+	}
+
+	/**
+	 * Ids are written as numbers of a base with the returned digits, in order of their value. The digits are read from the ids of the first numbers and checked against generated ids, so the database can decode ids the same way.
+	 */
+	@NotNull
+	static String getAlphabet() {
+		var zero = ID.decode(0L).asString();
+		var result = new StringBuilder();
+
+		for(long i = 0; i < Character.MAX_VALUE; i++) {
+			var id = ID.decode(i).asString();
+
+			//The digit before the last one changed, so all digits are known
+			if(id.length() != zero.length() || !id.regionMatches(0, zero, 0, zero.length() - 1)) break;
+			result.append(id.charAt(id.length() - 1));
+		}
+
+		var alphabet = result.toString();
+
+		for(int i = 0; i < 100; i++) {
+			var id = ID.generate();
+			if(decode(alphabet, id.asString()) != id.asNumber()) throw new IllegalStateException("Ids cannot be converted by the database, because their string representation is not a number of base " + alphabet.length());
+		}
+
+		return alphabet;
+	}
+
+	private static long decode(String alphabet, String id) {
+		long result = 0;
+
+		try {
+			for(var c : id.toCharArray()) {
+				var digit = alphabet.indexOf(c);
+				if(digit == -1) return -1;
+
+				result = Math.addExact(Math.multiplyExact(result, alphabet.length()), digit);
+			}
+		} catch(ArithmeticException e) {
+			return -1;
+		}
+
+		return result;
+	}
+
+	/**
+	 * Replaces the old column with the converted column in a single transaction. All rows have to be converted before.
+	 * The table is locked for the transaction, so no rows can be inserted between the check and the swap.
+	 * Indexes and constraints of the table that use the old column are dropped with it, so they are created again for the new column. The swap fails if objects outside the table depend on the old column.
+	 */
+	public void swap() {
+		table.getManager().getDriver().useTransaction(handle -> {
+			handle.createUpdate("lock table <name> in access exclusive mode")
+					.define("name", table.getName())
+					.execute();
+
+			var remaining = handle.createQuery("select count(*) from <name> where <target> is null and <column> is not null")
+					.define("name", table.getName())
+					.define("target", target)
+					.define("column", column)
+					.mapTo(long.class)
+					.one();
+			if(remaining > 0) throw new IllegalStateException(remaining + " rows of " + table.getName() + " are not converted yet");
+
+			//Indexes that belong to a constraint are created again with the constraint
+			var definitions = handle.createQuery("""
+							select distinct case
+								when c.oid is not null then 'alter table ' || d.refobjid::regclass || ' add constraint ' || quote_ident(c.conname) || ' ' || pg_get_constraintdef(c.oid)
+								else pg_get_indexdef(d.objid)
+							end
+							from pg_depend d
+							join pg_attribute a on a.attrelid = d.refobjid and a.attnum = d.refobjsubid
+							left join pg_constraint c on d.classid = 'pg_constraint'::regclass and c.oid = d.objid
+							where d.refobjid = to_regclass(:name) and a.attname = :column and (c.oid is not null or (
+								d.classid = 'pg_class'::regclass
+								and exists (select from pg_class r where r.oid = d.objid and r.relkind in ('i', 'I'))
+								and not exists (select from pg_constraint o where o.conindid = d.objid and o.conrelid = d.refobjid and o.contype in ('p', 'u', 'x'))
+							))
+							""")
+					.bind("name", table.getName())
+					.bind("column", column.toLowerCase())
+					.mapTo(String.class)
+					.list();
+
+			var notNull = handle.createQuery("select attnotnull from pg_attribute where attrelid = to_regclass(:name) and attname = :column")
+					.bind("name", table.getName())
+					.bind("column", column.toLowerCase())
+					.mapTo(boolean.class)
+					.one();
+
+			handle.createScript("alter table <name> drop column <column>;"
+					+ "alter table <name> rename column <target> to <column>;"
+					+ (notNull ? "alter table <name> alter column <column> set not null;" : "")
+			)
+					.define("name", table.getName())
+					.define("target", target)
+					.define("column", column)
+					.execute();
+
+			definitions.forEach(handle::execute);
+		});
+
+		DatabaseManager.logger.info("Column {}.{} migrated to bigint. Use 'DatabaseManager.ID_TYPE_MAPPER = TypeMapper.ID_MAPPER' now", table.getName(), column);
+	}
+}
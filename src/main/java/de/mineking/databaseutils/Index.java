@@ -0,0 +1,58 @@
+package de.mineking.databaseutils;
+
+import java.lang.annotation.*;
+
+/**
+ * Declares an index that is created by {@link Table#createIfNotExists()}. On a field, the index covers the column of the field unless {@link #columns()} or {@link #expression()} is set.
+ * Indexes are reconciled on every call: changed declarations are recreated and indexes that are no longer declared are dropped. Indexes that were created by other means are never touched.
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ ElementType.TYPE, ElementType.FIELD })
+@Repeatable(Index.List.class)
+public @interface Index {
+	enum Method {
+		BTREE, HASH, GIN, GIST, BRIN
+	}
+
+	/**
+	 * The name of the index. Defaults to a name derived from the table and the columns.
+	 */
+	String name() default "";
+
+	String[] columns() default {};
+
+	/**
+	 * An sql expression that is indexed instead of the columns, like <code>lower("name")</code>
+	 */
+	String expression() default "";
+
+	Method method() default Method.BTREE;
+
+	/**
+	 * The operator class applied to every indexed column or the expression, like <code>gin_trgm_ops</code>
+	 */
+	String operatorClass() default "";
+
+	boolean unique() default false;
+
+	/**
+	 * Columns that are stored in the index without being part of the key, to allow index-only scans
+	 */
+	String[] include() default {};
+
+	/**
+	 * The condition of a partial index
+	 */
+	String where() default "";
+
+	/**
+	 * Creates the index without locking the table against writes. This takes longer and cannot be done in a transaction.
+	 */
+	boolean concurrently() default false;
+
+	@Retention(RetentionPolicy.RUNTIME)
+	@Target({ ElementType.TYPE, ElementType.FIELD })
+	@interface List {
+		Index[] value();
+	}
+}
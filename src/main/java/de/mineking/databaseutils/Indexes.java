@@ -0,0 +1,142 @@
+package de.mineking.databaseutils;
+
+import org.jdbi.v3.core.Handle;
+import org.jdbi.v3.core.argument.Argument;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.lang.reflect.Field;
+import java.util.*;
+import java.util.stream.Collectors;
+
+class Indexes {
+	//Indexes created by this library are marked with a comment that contains the hash of their definition
+	private final static String MARKER = "databaseutils:";
+
+	record Definition(String name, boolean unique, String sql, boolean concurrently) {
+		String hash() {
+			return Integer.toHexString((unique + sql).hashCode());
+		}
+
+		String create(String table) {
+			return "create " + (unique ? "unique " : "") + "index " + (concurrently ? "concurrently " : "") + "\"" + name + "\" on " + table + " " + sql;
+		}
+	}
+
+	record Existing(String name, String comment, boolean valid) {}
+
+	private final TableImpl<?> table;
+	private final List<Definition> definitions = new ArrayList<>();
+
+	Indexes(@NotNull TableImpl<?> table, @NotNull Class<?> type) {
+		this.table = table;
+
+		for(var index : type.getAnnotationsByType(Index.class)) definitions.add(define(index, null));
+		for(var e : table.getColumns().entrySet()) {
+			for(var index : e.getValue().getAnnotationsByType(Index.class)) definitions.add(define(index, e.getKey()));
+
+			var column = e.getValue().getAnnotation(Column.class);
+			if(!column.textSearch().isEmpty()) definitions.add(new Definition(table.getName().toLowerCase() + "_" + e.getKey() + "_fts", false, "using gin (" + Where.textSearchVector(e.getKey(), column.textSearch()) + ")", false));
+			if(column.trigram()) definitions.add(trigram(e.getKey(), column.trigramMethod()));
+		}
+
+		var names = new HashSet<String>();
+		for(var d : definitions) if(!names.add(d.name())) throw new IllegalStateException("Duplicate index name " + d.name() + " in table " + table.getName());
+	}
+
+	@NotNull
+	List<Definition> getDefinitions() {
+		return definitions;
+	}
+
+	private Definition trigram(String column, Index.Method method) {
+		if(method != Index.Method.GIN && method != Index.Method.GIST) throw new IllegalStateException("Trigram index on " + table.getName() + "." + column + " has to use GIN or GIST");
+
+		var name = method.name().toLowerCase();
+		return new Definition(table.getName().toLowerCase() + "_" + column + "_trgm", false, "using " + name + " (\"" + column + "\" " + name + "_trgm_ops)", false);
+	}
+
+	private Definition define(Index index, String column) {
+		var columns = index.columns().length > 0 || !index.expression().isEmpty() || column == null ? List.of(index.columns()) : List.of(column);
+		if(columns.isEmpty() && index.expression().isEmpty()) throw new IllegalStateException("Index on table " + table.getName() + " has neither columns nor an expression");
+
+		var operator = index.operatorClass().isEmpty() ? "" : " " + index.operatorClass();
+		var elements = index.expression().isEmpty()
+				? columns.stream().map(c -> "\"" + c + "\"" + operator).collect(Collectors.joining(", "))
+				: "(" + index.expression() + ")" + operator;
+
+		var sql = "using " + index.method().name().toLowerCase() + " (" + elements + ")" +
+				(index.include().length > 0 ? " include (" + Arrays.stream(index.include()).map(c -> "\"" + c + "\"").collect(Collectors.joining(", ")) + ")" : "") +
+				(index.where().isEmpty() ? "" : " where " + index.where());
+
+		var name = index.name().isEmpty()
+				? (table.getName() + "_" + (columns.isEmpty() ? "expr" : String.join("_", columns)) + "_idx").toLowerCase()
+				: index.name();
+		if(name.length() > 63) name = name.substring(0, 54) + "_" + Integer.toHexString(sql.hashCode());
+
+		return new Definition(name, index.unique(), sql, index.concurrently());
+	}
+
+	/**
+	 * Loads the existing indexes of many tables with a single catalog query
+	 *
+	 * @return the indexes by their name for every table, by the lowercase table name
+	 */
+	@NotNull
+	static Map<String, Map<String, Existing>> load(@NotNull Handle handle, @NotNull String[] tables) {
+		var result = new HashMap<String, Map<String, Existing>>();
+		for(var name : tables) result.put(name, new HashMap<>());
+
+		handle.createQuery("select t.relname as table, c.relname as name, obj_description(c.oid, 'pg_class') as comment, i.indisvalid as valid from pg_index i join pg_class c on c.oid = i.indexrelid join pg_class t on t.oid = i.indrelid where t.relname = any(:tables) and pg_table_is_visible(t.oid)")
+				.bind("tables", (Argument) (position, statement, ctx) -> statement.setArray(position, statement.getConnection().createArrayOf("text", tables)))
+				.map((set, ctx) -> Map.entry(set.getString("table"), new Existing(set.getString("name"), set.getString("comment"), set.getBoolean("valid"))))
+				.forEach(e -> result.get(e.getKey()).put(e.getValue().name(), e.getValue()));
+
+		return result;
+	}
+
+	/**
+	 * @param existing the existing indexes of the table if they were already loaded, otherwise they are loaded by this method
+	 */
+	void reconcile(@Nullable Map<String, Existing> existing) {
+		if(existing == null) existing = table.withHandle(handle -> handle.createQuery("select c.relname as name, obj_description(c.oid, 'pg_class') as comment, i.indisvalid as valid from pg_index i join pg_class c on c.oid = i.indexrelid where i.indrelid = to_regclass(:table)")
+				.bind("table", table.getName())
+				.map((set, ctx) -> new Existing(set.getString("name"), set.getString("comment"), set.getBoolean("valid")))
+				.list()
+		).stream().collect(Collectors.toMap(Existing::name, e -> e));
+
+		var declared = definitions.stream().map(Definition::name).collect(Collectors.toSet());
+
+		for(var e : existing.values()) {
+			if(e.comment() == null || !e.comment().startsWith(MARKER) || declared.contains(e.name())) continue;
+
+			DatabaseManager.logger.info("Dropping index {} that is no longer declared on {}", e.name(), table.getName());
+			table.useHandle(handle -> handle.execute("drop index if exists \"" + e.name() + "\""));
+		}
+
+		for(var d : definitions) {
+			var current = existing.get(d.name());
+
+			if(current != null) {
+				if(current.valid() && Objects.equals(current.comment(), MARKER + d.hash())) continue;
+				if(current.comment() == null || !current.comment().startsWith(MARKER)) {
+					if(current.valid()) {
+						DatabaseManager.logger.warn("Index {} on {} was not created by this library and is left unchanged", d.name(), table.getName());
+						continue;
+					}
+				}
+
+				table.useHandle(handle -> handle.execute("drop index " + (d.concurrently() ? "concurrently " : "") + "if exists \"" + d.name() + "\""));
+			}
+
+			DatabaseManager.logger.info("Creating index {} on {}", d.name(), table.getName());
+			if(d.sql().contains("_trgm_ops")) table.useHandle(handle -> handle.execute("create extension if not exists pg_trgm"));
+
+			//Concurrent creation is not possible inside a transaction, so every index uses its own statements
+			table.useHandle(handle -> {
+				handle.execute(d.create(table.getName()));
+				handle.execute("comment on index \"" + d.name() + "\" is '" + MARKER + d.hash() + "'");
+			});
+		}
+	}
+}
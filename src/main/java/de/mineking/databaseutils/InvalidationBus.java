@@ -0,0 +1,111 @@
+package de.mineking.databaseutils;
+
+import com.google.gson.Gson;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+public class InvalidationBus {
+	public final static String DEFAULT_CHANNEL = "databaseutils_invalidation";
+
+	private final static Gson gson = new Gson();
+	private final static int MAX_PAYLOAD = 7900; //Postgres rejects payloads of 8000 bytes or more
+
+	@FunctionalInterface
+	public interface Listener {
+		/**
+		 * @param table the name of the table that was written
+		 * @param keys  the keys of the affected rows, or {@code null} if any row might have been affected
+		 */
+		void invalidate(@NotNull String table, @Nullable Set<String> keys);
+	}
+
+	private record Message(String node, String table, Set<String> keys) {}
+
+	private final DatabaseManager manager;
+	private final String channel;
+	private final String node = UUID.randomUUID().toString();
+
+	private final Map<String, Set<String>> pending = new HashMap<>();
+	private final List<Listener> listeners = new CopyOnWriteArrayList<>();
+	private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(r -> {
+		var thread = new Thread(r, "DatabaseUtils-Invalidation");
+		thread.setDaemon(true);
+		return thread;
+	});
+
+	InvalidationBus(@NotNull DatabaseManager manager, @NotNull String channel, @NotNull Duration interval) {
+		this.manager = manager;
+		this.channel = channel;
+
+		manager.listen(channel, this::receive);
+		executor.scheduleWithFixedDelay(this::flush, interval.toMillis(), interval.toMillis(), TimeUnit.MILLISECONDS);
+	}
+
+	@NotNull
+	public String getChannel() {
+		return channel;
+	}
+
+	@NotNull
+	public InvalidationBus addListener(@NotNull Listener listener) {
+		listeners.add(listener);
+		return this;
+	}
+
+	public void publish(@NotNull String table, @Nullable Set<String> keys) {
+		listeners.forEach(l -> l.invalidate(table, keys));
+
+		synchronized(pending) {
+			if(pending.containsKey(table) && pending.get(table) == null) return;
+
+			if(keys == null) pending.put(table, null);
+			else pending.computeIfAbsent(table, t -> new HashSet<>()).addAll(keys);
+		}
+	}
+
+	public void flush() {
+		Map<String, Set<String>> current;
+
+		synchronized(pending) {
+			if(pending.isEmpty()) return;
+
+			current = new HashMap<>(pending);
+			pending.clear();
+		}
+
+		try {
+			manager.db.useHandle(handle -> current.forEach((table, keys) -> {
+				var payload = gson.toJson(new Message(node, table, keys));
+				if(payload.getBytes(StandardCharsets.UTF_8).length > MAX_PAYLOAD) payload = gson.toJson(new Message(node, table, null));
+
+				handle.createUpdate("select pg_notify(:channel, :payload)")
+						.bind("channel", channel)
+						.bind("payload", payload)
+						.execute();
+			}));
+		} catch(Exception e) {
+			DatabaseManager.logger.error("Failed to publish invalidations", e);
+		}
+	}
+
+	public void close() {
+		executor.shutdown();
+		flush();
+	}
+
+	private void receive(String payload) {
+		var message = gson.fromJson(payload, Message.class);
+		if(message.node().equals(node)) return;
+
+		manager.getTables(message.table()).forEach(TableImpl::invalidateLocal);
+		listeners.forEach(l -> l.invalidate(message.table(), message.keys()));
+	}
+}
@@ -8,4 +8,8 @@ import java.lang.annotation.Target;
 @Retention(RetentionPolicy.RUNTIME)
 @Target(ElementType.FIELD)
 public @interface Json {
+	/**
+	 * Whether to store the value as 'jsonb' instead of 'text'. This allows the database to filter by the content, but doesn't preserve formatting and key order.
+	 */
+	boolean binary() default false;
 }
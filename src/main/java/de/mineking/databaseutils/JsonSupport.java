@@ -0,0 +1,38 @@
+package de.mineking.databaseutils;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonParseException;
+import com.google.gson.ToNumberStrategy;
+import com.google.gson.TypeAdapter;
+import com.google.gson.reflect.TypeToken;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.lang.reflect.Type;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+class JsonSupport {
+	private final static ToNumberStrategy numberStrategy = in -> {
+		var str = in.nextString();
+		return str.contains(".") ? Double.parseDouble(str) : Integer.parseInt(str);
+	};
+
+	final static Gson gson = new GsonBuilder()
+			.setNumberToNumberStrategy(numberStrategy)
+			.setObjectToNumberStrategy(numberStrategy)
+			.create();
+
+	private final static Map<Type, TypeAdapter<?>> adapters = new ConcurrentHashMap<>();
+
+	private JsonSupport() {}
+
+	static Object read(Reader reader, Type type) {
+		try {
+			return adapters.computeIfAbsent(type, t -> gson.getAdapter(TypeToken.get(t))).read(gson.newJsonReader(reader));
+		} catch(IOException e) {
+			throw new JsonParseException(e);
+		}
+	}
+}
@@ -0,0 +1,118 @@
+package de.mineking.databaseutils;
+
+import org.postgresql.PGConnection;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+class NotificationListener implements Runnable {
+	private final static int POLL_TIMEOUT = 500;
+	private final static int RECONNECT_DELAY = 1000;
+
+	private final DatabaseManager manager;
+	private final Map<String, List<Consumer<String>>> handlers = new ConcurrentHashMap<>();
+	private final Map<String, CompletableFuture<Void>> listening = new ConcurrentHashMap<>();
+
+	private volatile boolean running = true;
+	private Thread thread;
+
+	NotificationListener(DatabaseManager manager) {
+		this.manager = manager;
+	}
+
+	synchronized void listen(String channel, Consumer<String> handler) {
+		handlers.compute(channel, (c, current) -> {
+			if(current == null) current = new CopyOnWriteArrayList<>();
+			current.add(handler);
+			return current;
+		});
+
+		if(thread == null) {
+			thread = new Thread(this, "DatabaseUtils-Listener");
+			thread.setDaemon(true);
+			thread.start();
+		}
+	}
+
+	CompletableFuture<Void> listening(String channel) {
+		return listening.computeIfAbsent(channel, c -> new CompletableFuture<>());
+	}
+
+	/**
+	 * Channels without handlers are unlistened by the listener thread, because the connection cannot be used by other threads
+	 */
+	void unlisten(String channel, Consumer<String> handler) {
+		handlers.computeIfPresent(channel, (c, current) -> {
+			current.remove(handler);
+			return current.isEmpty() ? null : current;
+		});
+	}
+
+	void close() {
+		running = false;
+	}
+
+	@Override
+	public void run() {
+		var reconnected = false;
+
+		while(running) {
+			try(var handle = manager.db.open()) {
+				var connection = handle.getConnection().unwrap(PGConnection.class);
+				var listening = new HashSet<String>();
+
+				while(running) {
+					for(var channel : handlers.keySet()) {
+						if(listening.add(channel)) {
+							handle.execute("listen \"" + channel + "\"");
+							listening(channel).complete(null);
+						}
+					}
+
+					for(var iterator = listening.iterator(); iterator.hasNext(); ) {
+						var channel = iterator.next();
+						if(handlers.containsKey(channel)) continue;
+
+						handle.execute("unlisten \"" + channel + "\"");
+						this.listening.remove(channel);
+						iterator.remove();
+					}
+
+					//Invalidations sent while the connection was lost were missed, so every cached result might be outdated
+					if(reconnected) {
+						manager.invalidateLocal();
+						reconnected = false;
+					}
+
+					var notifications = connection.getNotifications(POLL_TIMEOUT);
+					if(notifications == null) continue;
+
+					for(var notification : notifications) {
+						for(var handler : handlers.getOrDefault(notification.getName(), List.of())) {
+							try {
+								handler.accept(notification.getParameter());
+							} catch(Exception e) {
+								DatabaseManager.logger.error("Failed to handle notification on channel '" + notification.getName() + "'", e);
+							}
+						}
+					}
+				}
+			} catch(Exception e) {
+				if(!running) return;
+				DatabaseManager.logger.error("Notification listener connection failed, reconnecting", e);
+				reconnected = true;
+
+				try {
+					Thread.sleep(RECONNECT_DELAY);
+				} catch(InterruptedException ex) {
+					return;
+				}
+			}
+		}
+	}
+}
@@ -18,6 +18,40 @@ public interface Order {
 		return () -> "order by \"" + column + "\" desc";
 	}
 
+	/**
+	 * Orders by the relevance of the column for the full-text search query, most relevant first
+	 *
+	 * @see Where#matches(String, String, String)
+	 */
+	@NotNull
+	static Order rankedBy(@NotNull String column, @NotNull String language, @NotNull String query) {
+		return () -> "order by " + rank(column, language, query) + " desc";
+	}
+
+	/**
+	 * Orders by the trigram similarity of the column to the value, most similar first.
+	 * Only a GiST trigram index (see {@link Column#trigramMethod()}) serves this order, otherwise all matching rows are sorted.
+	 */
+	@NotNull
+	static Order similarityTo(@NotNull String column, @NotNull String value) {
+		return () -> "order by \"" + column + "\" <-> " + literal(value);
+	}
+
+	@NotNull
+	private static String rank(String column, String language, String query) {
+		return "ts_rank(" + Where.textSearchVector(column, language) + ", websearch_to_tsquery('" + language + "', " + literal(query) + "))";
+	}
+
+	@NotNull
+	private static String literal(String value) {
+		return "'" + value.replace("'", "''") + "'";
+	}
+
+	@NotNull
+	default Order andRankedBy(@NotNull String column, @NotNull String language, @NotNull String query) {
+		return () -> format() + ", " + rank(column, language, query) + " desc";
+	}
+
 	@NotNull
 	default Order andAscendingBy(@NotNull String column) {
 		return () -> format() + ", \"" + column + "\" asc";
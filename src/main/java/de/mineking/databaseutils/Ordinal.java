@@ -0,0 +1,14 @@
+package de.mineking.databaseutils;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Stores an enum {@link Column} as 'smallint' ordinal instead of its name. Reordering the constants of the enum changes the meaning of existing rows.
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.FIELD)
+public @interface Ordinal {
+}
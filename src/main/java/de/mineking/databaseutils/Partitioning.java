@@ -0,0 +1,98 @@
+package de.mineking.databaseutils;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.time.*;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalAdjusters;
+
+/**
+ * Describes how a table is partitioned. Set through {@link DatabaseManager.TableBuilder#partitionBy(Partitioning)}.
+ * The partition column has to be part of the primary key.
+ */
+public final class Partitioning {
+	public enum Interval {
+		DAY, WEEK, MONTH, YEAR;
+
+		@NotNull
+		LocalDate start(@NotNull LocalDate date) {
+			return switch(this) {
+				case DAY -> date;
+				case WEEK -> date.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+				case MONTH -> date.withDayOfMonth(1);
+				case YEAR -> date.withDayOfYear(1);
+			};
+		}
+
+		@NotNull
+		LocalDate next(@NotNull LocalDate start) {
+			return switch(this) {
+				case DAY -> start.plus(1, ChronoUnit.DAYS);
+				case WEEK -> start.plus(1, ChronoUnit.WEEKS);
+				case MONTH -> start.plus(1, ChronoUnit.MONTHS);
+				case YEAR -> start.plus(1, ChronoUnit.YEARS);
+			};
+		}
+	}
+
+	private final static DateTimeFormatter SUFFIX = DateTimeFormatter.ofPattern("yyyyMMdd");
+
+	final String column;
+	final Interval interval;
+	final int premake;
+	final int partitions;
+
+	private Partitioning(String column, Interval interval, int premake, int partitions) {
+		this.column = column;
+		this.interval = interval;
+		this.premake = premake;
+		this.partitions = partitions;
+	}
+
+	/**
+	 * Partitions a timestamp column into ranges. Partitions are created for the current interval and the following ones when the table is created and by {@link Table#createPartitions()}.
+	 * Intervals start at midnight UTC for 'timestamptz' columns and at midnight of the default zone for 'timestamp' columns.
+	 * Rows outside the existing partitions cannot be inserted.
+	 *
+	 * @param premake the number of future partitions to create in advance
+	 */
+	@NotNull
+	public static Partitioning range(@NotNull String column, @NotNull Interval interval, int premake) {
+		if(premake < 0) throw new IllegalArgumentException("premake cannot be negative");
+		return new Partitioning(column, interval, premake, 0);
+	}
+
+	@NotNull
+	public static Partitioning range(@NotNull String column, @NotNull Interval interval) {
+		return range(column, interval, 3);
+	}
+
+	/**
+	 * Spreads rows evenly across a fixed number of partitions by the hash of the column
+	 */
+	@NotNull
+	public static Partitioning hash(@NotNull String column, int partitions) {
+		if(partitions <= 0) throw new IllegalArgumentException("partitions has to be positive");
+		return new Partitioning(column, null, 0, partitions);
+	}
+
+	public boolean isRange() {
+		return interval != null;
+	}
+
+	@NotNull
+	String format() {
+		return "partition by " + (isRange() ? "range" : "hash") + " (\"" + column + "\")";
+	}
+
+	@NotNull
+	static String getPartitionName(@NotNull String table, @NotNull LocalDate start) {
+		return table + "_p" + SUFFIX.format(start);
+	}
+
+	@NotNull
+	static LocalDate getPartitionStart(@NotNull String table, @NotNull String partition) {
+		return LocalDate.parse(partition.substring(table.length() + 2), SUFFIX);
+	}
+}
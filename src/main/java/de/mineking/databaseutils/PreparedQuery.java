@@ -0,0 +1,159 @@
+package de.mineking.databaseutils;
+
+import org.jdbi.v3.core.argument.Argument;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * A select query whose sql and arguments are created once. Values for {@link Where.Parameter}s are provided with {@link #bind(String, Object)}, which returns a new instance, so prepared queries can be shared between threads.
+ *
+ * @see Table#prepare(Where, Order)
+ */
+public class PreparedQuery<T> {
+	private record Placeholder(String id, Function<Object, Argument> factory) {}
+
+	private final TableImpl<T> table;
+	private final Where where;
+	private final String condition;
+	private final String sql;
+	private final String one;
+
+	private final Map<String, Argument> constants;
+	private final Map<String, List<Placeholder>> parameters;
+	private final Map<String, Argument> bound;
+
+	PreparedQuery(@NotNull TableImpl<T> table, @NotNull Where where, @NotNull Order order) {
+		this.table = table;
+		this.where = where;
+		this.condition = " from " + table.getName() + " " + where.format();
+		this.sql = "select *" + condition + " " + order.format();
+		//A second limit clause is not allowed, so orders with a limit are wrapped
+		this.one = order.format().contains("limit ") ? "select * from (" + sql + ") result limit 1" : sql + " limit 1";
+
+		var constants = new HashMap<String, Argument>();
+		var parameters = new HashMap<String, List<Placeholder>>();
+
+		where.values().forEach((id, factory) -> {
+			if(factory.getValue() instanceof Where.Parameter p) parameters.computeIfAbsent(p.name(), n -> new ArrayList<>()).add(new Placeholder(id, factory.compile(table)));
+			else constants.put(id, factory.create(table));
+		});
+
+		this.constants = Collections.unmodifiableMap(constants);
+		this.parameters = Collections.unmodifiableMap(parameters);
+		this.bound = Map.of();
+	}
+
+	private PreparedQuery(PreparedQuery<T> query, Map<String, Argument> bound) {
+		this.table = query.table;
+		this.where = query.where;
+		this.condition = query.condition;
+		this.sql = query.sql;
+		this.one = query.one;
+		this.constants = query.constants;
+		this.parameters = query.parameters;
+		this.bound = bound;
+	}
+
+	@NotNull
+	public String getSql() {
+		return sql;
+	}
+
+	@NotNull
+	public Set<String> getParameters() {
+		return parameters.keySet();
+	}
+
+	@NotNull
+	public PreparedQuery<T> bind(@NotNull String name, @Nullable Object value) {
+		var placeholders = parameters.get(name);
+		if(placeholders == null) throw new IllegalArgumentException("Query has no parameter '" + name + "'");
+
+		var bound = new HashMap<>(this.bound);
+		for(var p : placeholders) bound.put(p.id(), p.factory().apply(value));
+
+		return new PreparedQuery<>(this, bound);
+	}
+
+	private Map<String, Argument> getArguments() {
+		if(bound.size() != parameters.values().stream().mapToInt(List::size).sum()) {
+			var missing = parameters.entrySet().stream()
+					.filter(e -> !bound.containsKey(e.getValue().get(0).id()))
+					.map(Map.Entry::getKey)
+					.toList();
+			throw new IllegalStateException("Parameters " + missing + " are not bound");
+		}
+
+		if(bound.isEmpty()) return constants;
+
+		var result = new HashMap<>(constants);
+		result.putAll(bound);
+		return result;
+	}
+
+	@NotNull
+	public List<T> list() {
+		var arguments = getArguments();
+		return table.read(where, handle -> handle.createQuery(sql)
+				.bindMap(arguments)
+				.map(table::createObject)
+				.list()
+		);
+	}
+
+	@NotNull
+	public Optional<T> one() {
+		var arguments = getArguments();
+		return table.read(where, handle -> handle.createQuery(one)
+				.bindMap(arguments)
+				.map(table::createObject)
+				.findFirst()
+		);
+	}
+
+	/**
+	 * Streams the result without loading all rows at once. The stream holds a connection until it is closed.
+	 */
+	@NotNull
+	public Stream<T> stream() {
+		var arguments = getArguments();
+		return table.stream(where, handle -> handle.createQuery(sql)
+				.bindMap(arguments)
+				.setFetchSize(1000)
+				.map(table::createObject)
+				.stream()
+		);
+	}
+
+	public int count() {
+		var arguments = getArguments();
+		return table.read(where, handle -> handle.createQuery("select count(*)" + condition)
+				.bindMap(arguments)
+				.mapTo(int.class)
+				.one()
+		);
+	}
+
+	/**
+	 * Deletes all rows matching the condition of this query. The order is ignored.
+	 */
+	public int delete() {
+		var arguments = getArguments();
+		var deleted = table.withHandle(where, handle -> handle.createUpdate("delete" + condition)
+				.bindMap(arguments)
+				.execute()
+		);
+
+		table.written();
+		return deleted;
+	}
+
+	@Override
+	public String toString() {
+		return sql;
+	}
+}
@@ -0,0 +1,163 @@
+package de.mineking.databaseutils;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.lang.reflect.ParameterizedType;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+class PrimitiveArrays {
+	private final static int FLOAT4 = 700;
+	private final static int FLOAT8 = 701;
+
+	private PrimitiveArrays() {}
+
+	/**
+	 * @return the primitive component type used to store the provided type or null if it is not stored as a primitive array
+	 */
+	@Nullable
+	static Class<?> getComponent(@NotNull Type type) {
+		if(type.equals(int[].class)) return int.class;
+		if(type.equals(long[].class)) return long.class;
+		if(type.equals(double[].class)) return double.class;
+
+		if(type instanceof ParameterizedType p && p.getRawType().equals(List.class) && p.getActualTypeArguments()[0].equals(Long.class)) return long.class;
+		return null;
+	}
+
+	@NotNull
+	static Object toArray(@NotNull Class<?> component, @NotNull Object value) {
+		if(value.getClass().isArray() && value.getClass().getComponentType().equals(component)) return value;
+
+		var collection = value instanceof Collection<?> c ? c : List.of((Object[]) value);
+		var i = 0;
+
+		if(component.equals(int.class)) {
+			var result = new int[collection.size()];
+			for(var v : collection) result[i++] = ((Number) v).intValue();
+			return result;
+		} else if(component.equals(long.class)) {
+			var result = new long[collection.size()];
+			for(var v : collection) result[i++] = ((Number) v).longValue();
+			return result;
+		} else {
+			var result = new double[collection.size()];
+			for(var v : collection) result[i++] = ((Number) v).doubleValue();
+			return result;
+		}
+	}
+
+	@NotNull
+	static List<Long> toList(@NotNull long[] value) {
+		var result = new ArrayList<Long>(value.length);
+		for(var v : value) result.add(v);
+		return result;
+	}
+
+	/**
+	 * Decodes the binary representation of a one-dimensional array, which the driver receives for server-prepared statements
+	 */
+	@NotNull
+	static Object decode(@NotNull Class<?> component, @NotNull byte[] value) {
+		var buffer = ByteBuffer.wrap(value);
+
+		var dimensions = buffer.getInt();
+		buffer.getInt(); //Whether the array contains nulls, they are detected by their length instead
+		var oid = buffer.getInt();
+
+		if(dimensions > 1) throw new IllegalArgumentException("Cannot decode multidimensional array");
+
+		var size = 0;
+		if(dimensions == 1) {
+			size = buffer.getInt();
+			buffer.getInt(); //Lower bound
+		}
+
+		if(component.equals(double.class)) {
+			var result = new double[size];
+			for(int i = 0; i < size; i++) {
+				var length = length(buffer);
+				result[i] = oid == FLOAT8 ? buffer.getDouble() : oid == FLOAT4 ? buffer.getFloat() : integer(buffer, length);
+			}
+			return result;
+		}
+
+		if(component.equals(long.class)) {
+			var result = new long[size];
+			for(int i = 0; i < size; i++) result[i] = integer(buffer, length(buffer));
+			return result;
+		}
+
+		var result = new int[size];
+		for(int i = 0; i < size; i++) result[i] = Math.toIntExact(integer(buffer, length(buffer)));
+		return result;
+	}
+
+	private static int length(ByteBuffer buffer) {
+		var length = buffer.getInt();
+		if(length == -1) throw new IllegalArgumentException("Cannot store NULL in primitive array");
+		return length;
+	}
+
+	private static long integer(ByteBuffer buffer, int length) {
+		return switch(length) {
+			case 2 -> buffer.getShort();
+			case 4 -> buffer.getInt();
+			case 8 -> buffer.getLong();
+			default -> throw new IllegalArgumentException("Cannot decode integer of " + length + " bytes");
+		};
+	}
+
+	/**
+	 * Decodes the text representation of a one-dimensional array (like <code>{1,2,3}</code>) without boxing the elements. The characters of the array are all ASCII, so they are read from the bytes directly.
+	 */
+	@NotNull
+	static Object parse(@NotNull Class<?> component, @NotNull byte[] value) {
+		if(value[0] != '{') throw new IllegalArgumentException("Cannot parse multidimensional or bounded array " + new String(value, StandardCharsets.US_ASCII));
+
+		var end = value.length - 1;
+		var size = end == 1 ? 0 : 1;
+		for(int i = 1; i < end; i++) if(value[i] == ',') size++;
+
+		if(component.equals(double.class)) {
+			var result = new double[size];
+			for(int i = 0, start = 1; i < size; i++) {
+				var next = start;
+				while(next < end && value[next] != ',') next++;
+
+				result[i] = Double.parseDouble(element(value, start, next));
+				start = next + 1;
+			}
+			return result;
+		}
+
+		var result = new long[size];
+		for(int i = 0, pos = 1; i < size; i++, pos++) {
+			var negative = value[pos] == '-';
+			if(negative) pos++;
+
+			if(value[pos] == 'N') throw new IllegalArgumentException("Cannot store NULL in primitive array");
+
+			long v = 0;
+			for(byte c; pos < end && (c = value[pos]) != ','; pos++) v = v * 10 + (c - '0');
+			result[i] = negative ? -v : v;
+		}
+
+		if(component.equals(long.class)) return result;
+
+		var ints = new int[size];
+		for(int i = 0; i < size; i++) ints[i] = Math.toIntExact(result[i]);
+		return ints;
+	}
+
+	private static String element(byte[] value, int start, int end) {
+		var element = new String(value, start, end - start, StandardCharsets.US_ASCII);
+		if(element.equals("NULL")) throw new IllegalArgumentException("Cannot store NULL in primitive array");
+		return element;
+	}
+}
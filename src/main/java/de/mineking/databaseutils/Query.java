@@ -0,0 +1,20 @@
+package de.mineking.databaseutils;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Implements a method of a custom {@link Table} interface with an sql statement. <code>&lt;table&gt;</code> is replaced by the name of the table.
+ * Method parameters are bound by their name (like <code>:name</code>), which requires compiling with '-parameters'. Otherwise, they are named <code>arg0</code>, <code>arg1</code>, ...
+ * Parameters named like a column are bound through the mapper of that column.
+ * <p>
+ * Statements starting with insert, update or delete return the number of changed rows, unless they have a returning clause.
+ * Selects without locking clause are routed to {@link Replicas} like other reads.
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.METHOD)
+public @interface Query {
+	String value();
+}
@@ -0,0 +1,109 @@
+package de.mineking.databaseutils;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.lang.reflect.Array;
+import java.time.Duration;
+import java.util.*;
+import java.util.function.Supplier;
+
+public class QueryCache {
+	private final long ttl;
+	private final int maxRows;
+
+	private final LinkedHashMap<Key, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+	private long generation = 0;
+	private int rows = 0;
+
+	public QueryCache(@NotNull Duration ttl, int maxRows) {
+		if(maxRows <= 0) throw new IllegalArgumentException("maxRows has to be positive");
+
+		this.ttl = ttl.toNanos();
+		this.maxRows = maxRows;
+	}
+
+	@NotNull
+	@SuppressWarnings("unchecked")
+	public <T> List<T> get(@NotNull Where where, @NotNull Order order, @NotNull Supplier<List<T>> loader) {
+		var key = Key.of(where, order);
+		long generation;
+
+		synchronized(this) {
+			var entry = entries.get(key);
+
+			if(entry != null) {
+				if(entry.expires - System.nanoTime() > 0) return (List<T>) entry.value;
+				remove(key);
+			}
+
+			generation = this.generation;
+		}
+
+		var result = List.copyOf(loader.get());
+
+		synchronized(this) {
+			//Don't store results that were loaded while the table was written to, they might already be outdated
+			if(generation == this.generation && result.size() <= maxRows) {
+				var old = entries.put(key, new Entry(result, System.nanoTime() + ttl));
+				if(old != null) rows -= old.value.size();
+				rows += result.size();
+
+				var iterator = entries.values().iterator();
+				while(rows > maxRows && iterator.hasNext()) {
+					rows -= iterator.next().value.size();
+					iterator.remove();
+				}
+			}
+		}
+
+		return result;
+	}
+
+	public synchronized void invalidate() {
+		generation++;
+		entries.clear();
+		rows = 0;
+	}
+
+	public synchronized int size() {
+		return entries.size();
+	}
+
+	private void remove(Key key) {
+		var entry = entries.remove(key);
+		if(entry != null) rows -= entry.value.size();
+	}
+
+	private record Entry(List<?> value, long expires) {}
+
+	private record Key(String sql, List<Object> values) {
+		static Key of(Where where, Order order) {
+			var sql = where.format();
+
+			//Placeholder names are random, so they are replaced by their position to make equal conditions produce equal keys
+			var placeholders = where.values().entrySet().stream()
+					.map(e -> Map.entry(sql.indexOf(":" + e.getKey()), e))
+					.sorted(Map.Entry.comparingByKey())
+					.map(Map.Entry::getValue)
+					.toList();
+
+			var normalized = sql;
+			var values = new ArrayList<>(placeholders.size());
+
+			for(int i = 0; i < placeholders.size(); i++) {
+				normalized = normalized.replace(":" + placeholders.get(i).getKey(), ":" + i);
+				values.add(normalize(placeholders.get(i).getValue().getValue()));
+			}
+
+			return new Key(normalized + " " + order.format(), values);
+		}
+
+		private static Object normalize(Object value) {
+			if(value == null || !value.getClass().isArray()) return value;
+
+			var result = new ArrayList<>();
+			for(int i = 0; i < Array.getLength(value); i++) result.add(normalize(Array.get(value, i)));
+			return result;
+		}
+	}
+}
@@ -0,0 +1,8 @@
+package de.mineking.databaseutils;
+
+/**
+ * Implementation of a method of a custom {@link Table} interface, either annotated with {@link Query} or derived from its name
+ */
+public interface QueryMethod {
+	Object invoke(Object[] args);
+}
@@ -0,0 +1,274 @@
+package de.mineking.databaseutils;
+
+import org.jdbi.v3.core.HandleCallback;
+import org.jdbi.v3.core.argument.Argument;
+import org.jdbi.v3.core.statement.SqlStatement;
+import org.jdbi.v3.core.statement.SqlStatements;
+import org.jetbrains.annotations.NotNull;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.*;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Implements the abstract methods of custom {@link Table} interfaces. Methods are either annotated with {@link Query} or derived from their name, like <code>findByNameAndAgeGreaterThanOrderByCreatedDesc</code>.
+ * All methods are parsed and validated when the table is created.
+ */
+class QueryMethods {
+	private final static Pattern DERIVED = Pattern.compile("^(find|get|select|count|exists|delete)(First)?(?:All)?(?:By(.+?))?(?:OrderBy(.+))?$");
+	private final static Pattern OR = Pattern.compile("(?<=[a-z0-9])Or(?=[A-Z])");
+	private final static Pattern AND = Pattern.compile("(?<=[a-z0-9])And(?=[A-Z])");
+	private final static Pattern ORDER = Pattern.compile("(?<=Asc|Desc)(?=[A-Z])");
+	private final static Pattern LOCKING = Pattern.compile("\\bfor\\s+(no\\s+key\\s+)?(update|share|key\\s+share)\\b", Pattern.CASE_INSENSITIVE);
+
+	private enum Operator {
+		GREATER_THAN_EQUAL("GreaterThanEqual", 1),
+		LESS_THAN_EQUAL("LessThanEqual", 1),
+		GREATER_THAN("GreaterThan", 1),
+		LESS_THAN("LessThan", 1),
+		BETWEEN("Between", 2),
+		IS_NOT_NULL("IsNotNull", 0),
+		IS_NULL("IsNull", 0),
+		LIKE_IGNORE_CASE("LikeIgnoreCase", 1),
+		LIKE("Like", 1),
+		NOT_IN("NotIn", 1),
+		IN("In", 1),
+		CONTAINS("Contains", 1),
+		NOT("Not", 1),
+		EQUALS("", 1);
+
+		final String suffix;
+		final int arguments;
+
+		Operator(String suffix, int arguments) {
+			this.suffix = suffix;
+			this.arguments = arguments;
+		}
+
+		Where create(String column, Where.Parameter[] parameters) {
+			return switch(this) {
+				case GREATER_THAN_EQUAL -> Where.greaterOrEqual(column, parameters[0]);
+				case LESS_THAN_EQUAL -> Where.lowerOrEqual(column, parameters[0]);
+				case GREATER_THAN -> Where.greater(column, parameters[0]);
+				case LESS_THAN -> Where.lower(column, parameters[0]);
+				case BETWEEN -> Where.between(column, parameters[0], parameters[1]);
+				case IS_NOT_NULL -> Where.isNotNull(column);
+				case IS_NULL -> Where.isNull(column);
+				case LIKE_IGNORE_CASE -> Where.likeIgnoreCase(column, parameters[0]);
+				case LIKE -> Where.like(column, parameters[0]);
+				case NOT_IN -> in(column, parameters[0]).not();
+				case IN -> in(column, parameters[0]);
+				case CONTAINS -> Where.fieldContainsValue(column, parameters[0]);
+				case NOT -> Where.notEqual(column, parameters[0]);
+				case EQUALS -> Where.equals(column, parameters[0]);
+			};
+		}
+
+		private static Where in(String column, Where.Parameter parameter) {
+			return new Where.WhereImpl("\"" + column + "\" = any(:" + parameter.name() + ")", Map.of(parameter.name(), ArgumentFactory.createArray(column, parameter)));
+		}
+	}
+
+	private QueryMethods() {}
+
+	@NotNull
+	static Map<Method, QueryMethod> parse(@NotNull TableImpl<?> table, @NotNull Class<?> type, @NotNull Class<?> entity) {
+		var result = new HashMap<Method, QueryMethod>();
+
+		for(var method : type.getMethods()) {
+			if(method.isDefault() || java.lang.reflect.Modifier.isStatic(method.getModifiers()) || isImplemented(method)) continue;
+
+			try {
+				var query = method.getAnnotation(Query.class);
+				result.put(method, query != null ? parseQuery(table, method, query.value(), entity) : parseDerived(table, method, entity));
+			} catch(RuntimeException e) {
+				throw new IllegalStateException("Invalid query method " + type.getSimpleName() + "#" + method.getName() + ": " + e.getMessage(), e);
+			}
+		}
+
+		return result;
+	}
+
+	/**
+	 * @return the signature of the method as used by {@link TableFactory#create(Table, Function)}, like <code>findByName(java.lang.String)</code>
+	 */
+	@NotNull
+	static String getSignature(@NotNull Method method) {
+		return method.getName() + Arrays.stream(method.getParameterTypes()).map(Class::getCanonicalName).collect(Collectors.joining(",", "(", ")"));
+	}
+
+	private static boolean isImplemented(Method method) {
+		try {
+			TableImpl.class.getMethod(method.getName(), method.getParameterTypes());
+			return true;
+		} catch(NoSuchMethodException e) {
+			return false;
+		}
+	}
+
+	private static QueryMethod parseDerived(TableImpl<?> table, Method method, Class<?> entity) {
+		var matcher = DERIVED.matcher(method.getName());
+		if(!matcher.matches()) throw new IllegalArgumentException("Method name has to be like 'findByNameOrderByAgeDesc' or the method has to be annotated with @Query");
+
+		//Counting, checking and deleting always affect all matching rows, so a limit or order would be silently ignored
+		if(List.of("count", "exists", "delete").contains(matcher.group(1)) && (matcher.group(2) != null || matcher.group(4) != null)) throw new IllegalArgumentException("'First' and 'OrderBy' are not supported for " + matcher.group(1) + " methods");
+
+		var columns = new HashMap<String, String>();
+		for(var column : table.getColumns().keySet()) columns.put(normalize(column), column);
+
+		var counter = new int[] { 0 };
+		var where = matcher.group(3) == null ? Where.empty() : Where.anyOf(OR.splitAsStream(matcher.group(3))
+				.map(group -> Where.allOf(AND.splitAsStream(group)
+						.map(condition -> parseCondition(columns, condition, counter))
+						.toList()
+				))
+				.toList()
+		);
+
+		if(counter[0] != method.getParameterCount()) throw new IllegalArgumentException("The conditions require " + counter[0] + " parameters, but the method has " + method.getParameterCount());
+
+		var order = Order.empty();
+		if(matcher.group(4) != null) {
+			for(var part : ORDER.split(matcher.group(4))) {
+				var descending = part.endsWith("Desc");
+				var property = part.replaceFirst("(Asc|Desc)$", "");
+
+				var column = columns.get(normalize(property));
+				if(column == null) throw new IllegalArgumentException("Table has no column '" + property + "'");
+
+				order = order.format().isEmpty()
+						? (descending ? Order.descendingBy(column) : Order.ascendingBy(column))
+						: (descending ? order.andDescendingBy(column) : order.andAscendingBy(column));
+			}
+		}
+
+		if(matcher.group(2) != null) order = order.limit(1);
+
+		var query = table.prepare(where, order);
+		var names = new String[method.getParameterCount()];
+		for(int i = 0; i < names.length; i++) names[i] = "p" + i;
+
+		Function<Object[], PreparedQuery<?>> bind = args -> {
+			PreparedQuery<?> result = query;
+			for(int i = 0; i < names.length; i++) result = result.bind(names[i], args[i]);
+			return result;
+		};
+
+		var returnType = method.getReturnType();
+
+		return switch(matcher.group(1)) {
+			case "count" -> {
+				if(returnType == long.class || returnType == Long.class) yield args -> (long) bind.apply(args).count();
+				if(returnType == int.class || returnType == Integer.class) yield args -> bind.apply(args).count();
+				throw new IllegalArgumentException("Count methods have to return int or long");
+			}
+			case "exists" -> {
+				if(returnType != boolean.class && returnType != Boolean.class) throw new IllegalArgumentException("Exists methods have to return boolean");
+				yield args -> bind.apply(args).count() > 0;
+			}
+			case "delete" -> {
+				if(returnType == void.class || returnType == int.class || returnType == Integer.class) yield args -> bind.apply(args).delete();
+				throw new IllegalArgumentException("Delete methods have to return void or int");
+			}
+			default -> {
+				if(returnType == Optional.class) yield args -> bind.apply(args).one();
+				if(returnType == Stream.class) yield args -> bind.apply(args).stream();
+				if(returnType.isAssignableFrom(List.class)) yield args -> bind.apply(args).list();
+				if(returnType.isAssignableFrom(entity)) yield args -> bind.apply(args).one().orElse(null);
+				throw new IllegalArgumentException("Cannot return " + returnType.getSimpleName());
+			}
+		};
+	}
+
+	private static Where parseCondition(Map<String, String> columns, String condition, int[] counter) {
+		for(var operator : Operator.values()) {
+			if(!condition.endsWith(operator.suffix)) continue;
+
+			var column = columns.get(normalize(condition.substring(0, condition.length() - operator.suffix.length())));
+			if(column == null) continue;
+
+			var parameters = new Where.Parameter[operator.arguments];
+			for(int i = 0; i < parameters.length; i++) parameters[i] = Where.parameter("p" + counter[0]++);
+
+			return operator.create(column, parameters);
+		}
+
+		throw new IllegalArgumentException("Table has no column matching '" + condition + "'");
+	}
+
+	private static String normalize(String name) {
+		return name.replace("_", "").toLowerCase();
+	}
+
+	private static QueryMethod parseQuery(TableImpl<?> table, Method method, String query, Class<?> entity) {
+		var sql = query.replace("<table>", table.getName());
+		var keyword = sql.strip().split("\\s+", 2)[0].toLowerCase();
+		var update = List.of("insert", "update", "delete").contains(keyword) && !sql.toLowerCase().contains("returning");
+
+		//Binding plan: parameters named like a column use the mapper of the column
+		var parameters = method.getParameters();
+		var names = new String[parameters.length];
+		var factories = new ArrayList<Function<Object, Argument>>();
+
+		//Parsed by Jdbi, so casts like '::int' and names that only start with the name of a parameter are not taken as parameters
+		var used = table.getManager().getDriver().getConfig(SqlStatements.class).getSqlParser().parse(sql, null).getParameters().getParameterNames();
+
+		for(var i = 0; i < parameters.length; i++) {
+			names[i] = parameters[i].getName();
+			factories.add(table.getColumns().containsKey(names[i]) ? ArgumentFactory.createDefault(names[i], null).compile(table) : null);
+
+			if(!used.contains(names[i])) throw new IllegalArgumentException("Parameter '" + names[i] + "' is not used in the query");
+		}
+
+		var returnType = method.getReturnType();
+
+		if(update) {
+			if(returnType != void.class && returnType != int.class && returnType != Integer.class) throw new IllegalArgumentException("Update statements have to return void or int");
+
+			return args -> {
+				var result = table.withHandle(handle -> bind(handle.createUpdate(sql), names, factories, args).execute());
+				table.written();
+				return result;
+			};
+		}
+
+		//Plain selects can run on replicas, everything else might write or lock rows
+		var replicated = keyword.equals("select") && !LOCKING.matcher(sql).find();
+
+		var element = getElementType(method.getGenericReturnType());
+		var mapEntity = element == entity;
+
+		Function<org.jdbi.v3.core.statement.Query, org.jdbi.v3.core.result.ResultIterable<?>> mapper = q -> mapEntity ? q.map(table::createObject) : q.mapTo(element);
+
+		if(returnType == Optional.class) return args -> run(table, replicated, handle -> mapper.apply(bind(handle.createQuery(sql), names, factories, args)).findFirst());
+		if(returnType.isAssignableFrom(List.class)) return args -> run(table, replicated, handle -> mapper.apply(bind(handle.createQuery(sql), names, factories, args)).list());
+		if(returnType == Stream.class) return args -> table.stream(Where.empty(), replicated, handle -> mapper.apply(bind(handle.createQuery(sql), names, factories, args).setFetchSize(1000)).stream());
+
+		return args -> run(table, replicated, handle -> mapper.apply(bind(handle.createQuery(sql), names, factories, args)).findFirst().orElse(null));
+	}
+
+	private static <R> R run(TableImpl<?> table, boolean replicated, HandleCallback<R, RuntimeException> callback) {
+		return replicated ? table.read(Where.empty(), callback) : table.withHandle(callback);
+	}
+
+	private static <S extends SqlStatement<S>> S bind(S statement, String[] names, List<Function<Object, Argument>> factories, Object[] args) {
+		for(int i = 0; i < names.length; i++) {
+			var factory = factories.get(i);
+
+			if(factory != null) statement.bind(names[i], factory.apply(args[i]));
+			else statement.bind(names[i], args[i]);
+		}
+
+		return statement;
+	}
+
+	private static Class<?> getElementType(Type type) {
+		if(type instanceof ParameterizedType p && (p.getRawType() == List.class || p.getRawType() == Optional.class || p.getRawType() == Stream.class || p.getRawType() == Collection.class)) type = p.getActualTypeArguments()[0];
+		return ReflectionHelpers.getClazz(type);
+	}
+}
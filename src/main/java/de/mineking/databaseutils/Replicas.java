@@ -0,0 +1,175 @@
+package de.mineking.databaseutils;
+
+import org.jdbi.v3.core.ConnectionException;
+import org.jdbi.v3.core.Handle;
+import org.jdbi.v3.core.HandleCallback;
+import org.jdbi.v3.core.Jdbi;
+import org.jetbrains.annotations.NotNull;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * Routes reads of tables to replicas of the primary database. Each read uses the replica with the fewest running requests.
+ * Writes, transactions, temporary tables and conditions that have to be prepared always use the primary. Without replicas, all reads use the primary.
+ * Results that are put into the cache of a table are always loaded from the primary, because outdated rows would stay in the cache until the table is written again.
+ */
+public class Replicas {
+	/**
+	 * The time a replica is skipped after a connection to it failed
+	 */
+	public static Duration RETRY_DELAY = Duration.ofSeconds(5);
+
+	private final DatabaseManager manager;
+
+	private volatile Replica[] replicas = new Replica[0];
+	private final AtomicInteger next = new AtomicInteger();
+
+	private volatile long window = 0;
+	private final Map<String, Long> writes = new ConcurrentHashMap<>();
+
+	Replicas(@NotNull DatabaseManager manager) {
+		this.manager = manager;
+	}
+
+	@NotNull
+	public synchronized Replicas add(@NotNull Jdbi replica) {
+		var replicas = Arrays.copyOf(this.replicas, this.replicas.length + 1);
+		replicas[replicas.length - 1] = new Replica(replica);
+
+		this.replicas = replicas;
+		return this;
+	}
+
+	@NotNull
+	public Replicas add(@NotNull String host, @NotNull String user, @NotNull String password) {
+		return add(Jdbi.create(host, user, password));
+	}
+
+	public synchronized boolean remove(@NotNull Jdbi replica) {
+		var replicas = Arrays.stream(this.replicas).filter(r -> r.db != replica).toArray(Replica[]::new);
+		if(replicas.length == this.replicas.length) return false;
+
+		this.replicas = replicas;
+		return true;
+	}
+
+	@NotNull
+	public List<Jdbi> getDrivers() {
+		return Arrays.stream(replicas).map(r -> r.db).toList();
+	}
+
+	/**
+	 * Keeps reads of a table on the primary for the provided duration after it was written to, so they see the written changes even if the replicas lag behind
+	 */
+	@NotNull
+	public Replicas readYourWrites(@NotNull Duration window) {
+		this.window = window.toNanos();
+		if(this.window == 0) writes.clear();
+
+		return this;
+	}
+
+	void written(@NotNull String table) {
+		if(window > 0) writes.put(table, System.nanoTime());
+	}
+
+	boolean isAvailable(@NotNull String table) {
+		if(replicas.length == 0) return false;
+
+		var time = writes.get(table);
+		return time == null || System.nanoTime() - time >= window;
+	}
+
+	<R> R withHandle(@NotNull HandleCallback<R, RuntimeException> callback) {
+		var replica = select();
+		if(replica == null) return manager.db.withHandle(callback);
+
+		replica.outstanding.incrementAndGet();
+		try {
+			return replica.db.withHandle(callback);
+		} catch(ConnectionException e) {
+			replica.failed(e);
+			return manager.db.withHandle(callback);
+		} finally {
+			replica.outstanding.decrementAndGet();
+		}
+	}
+
+	/**
+	 * Opens a handle that is kept until the returned stream is closed
+	 */
+	@NotNull
+	<R> Stream<R> stream(@NotNull Function<Handle, Stream<R>> callback) {
+		var replica = select();
+		Handle handle = null;
+
+		if(replica != null) {
+			try {
+				handle = replica.db.open();
+			} catch(ConnectionException e) {
+				replica.failed(e);
+				replica = null;
+			}
+		}
+
+		if(handle == null) handle = manager.db.open();
+		if(replica != null) replica.outstanding.incrementAndGet();
+
+		var release = replica == null ? (Runnable) handle::close : release(replica, handle);
+
+		try {
+			return callback.apply(handle).onClose(release);
+		} catch(RuntimeException e) {
+			release.run();
+			throw e;
+		}
+	}
+
+	private static Runnable release(Replica replica, Handle handle) {
+		return () -> {
+			replica.outstanding.decrementAndGet();
+			handle.close();
+		};
+	}
+
+	private Replica select() {
+		var replicas = this.replicas;
+		if(replicas.length == 0) return null;
+
+		//Start at a different replica every time, so replicas with equally many requests are used in turn
+		var start = Math.floorMod(next.getAndIncrement(), replicas.length);
+		var now = System.nanoTime();
+
+		Replica result = null;
+		for(int i = 0; i < replicas.length; i++) {
+			var replica = replicas[(start + i) % replicas.length];
+			if(now - replica.failed < RETRY_DELAY.toNanos()) continue;
+
+			if(result == null || replica.outstanding.get() < result.outstanding.get()) result = replica;
+		}
+
+		return result;
+	}
+
+	private static class Replica {
+		final Jdbi db;
+		final AtomicInteger outstanding = new AtomicInteger();
+		volatile long failed = System.nanoTime() - RETRY_DELAY.toNanos();
+
+		Replica(Jdbi db) {
+			this.db = db;
+		}
+
+		void failed(ConnectionException e) {
+			DatabaseManager.logger.warn("Failed to connect to replica, using primary for the next " + RETRY_DELAY.toSeconds() + " seconds", e);
+			failed = System.nanoTime();
+		}
+	}
+}
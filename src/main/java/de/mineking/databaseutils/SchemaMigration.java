@@ -0,0 +1,200 @@
+package de.mineking.databaseutils;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.*;
+import java.util.regex.Pattern;
+
+/**
+ * The differences between the columns declared for a table and the columns of the existing table, as a list of steps that bring the table up to date.
+ * <p>
+ * Steps are ordered to avoid long locks: new columns are added without default and as nullable, defaults are backfilled in batches and 'not null' is validated through a constraint that doesn't block writes.
+ * Type mismatches and columns that only exist in the database are reported but never changed.
+ */
+public class SchemaMigration {
+	private final static Pattern DEFAULT = Pattern.compile("(?i)\\bdefault\\s+(.+?)\\s*(?=\\bnot\\s+null\\b|\\bnull\\b|\\bunique\\b|$)");
+	private final static Pattern NOT_NULL = Pattern.compile("(?i)\\bnot\\s+null\\b");
+	private final static Pattern NULL = Pattern.compile("(?i)\\bnull\\b");
+	private final static Pattern NULL_LITERAL = Pattern.compile("(?i)[(\\s]*(null|cast\\s*\\(\\s*null\\s+as\\s+[\\w\\s\\[\\]\".]+\\))[)\\s]*(::\\s*[\\w\\s\\[\\]\".]+)*");
+
+	/**
+	 * @param repeat whether the statement is repeated until it doesn't change any rows
+	 */
+	public record Step(@NotNull String description, @NotNull String sql, boolean repeat) {
+		@Override
+		public String toString() {
+			return description + ": " + sql;
+		}
+	}
+
+	private final TableImpl<?> table;
+	private final List<Step> steps = new ArrayList<>();
+	private final List<String> mismatches = new ArrayList<>();
+	private final List<String> unknown = new ArrayList<>();
+
+	private int batchSize = 10_000;
+
+	private record Existing(String name, String type) {}
+
+	SchemaMigration(@NotNull TableImpl<?> table) {
+		this.table = table;
+
+		var existing = new HashMap<String, Existing>();
+
+		table.useHandle(handle -> handle.createQuery("select attname, format_type(atttypid, atttypmod) from pg_attribute where attrelid = to_regclass(:table) and attnum > 0 and not attisdropped")
+				.bind("table", table.getName())
+				.map((set, ctx) -> new Existing(set.getString(1), set.getString(2)))
+				.list().forEach(e -> existing.put(e.name(), e))
+		);
+
+		if(existing.isEmpty()) return;
+
+		var declared = new LinkedHashMap<String, String>();
+		table.getColumns().forEach((name, field) -> declared.put(name, table.getManager().getType(field.getGenericType(), field).getName()));
+
+		//Normalize declared type names (like 'int8' or 'numeric') to the names used by format_type
+		var names = new ArrayList<>(declared.values().stream().map(SchemaMigration::resolveSerial).distinct().toList());
+		var normalized = new HashMap<String, String>();
+		table.useHandle(handle -> {
+			for(var name : names) normalized.put(name, handle.createQuery("select coalesce(format_type(to_regtype(:type), null), :type)").bind("type", name).mapTo(String.class).one());
+		});
+
+		declared.forEach((name, type) -> {
+			var column = existing.remove(name);
+			var expected = normalized.get(resolveSerial(type));
+
+			if(column == null) addColumn(name, type);
+			else if(!stripModifier(column.type()).equals(stripModifier(expected))) mismatches.add(name + ": expected " + expected + " but was " + column.type());
+		});
+
+		existing.keySet().forEach(unknown::add);
+	}
+
+	static String resolveSerial(String type) {
+		return switch(type) {
+			case "smallserial" -> "smallint";
+			case "serial" -> "integer";
+			case "bigserial" -> "bigint";
+			default -> type;
+		};
+	}
+
+	private static String stripModifier(String type) {
+		return type.replaceAll("\\(.*?\\)", "");
+	}
+
+	private void addColumn(String name, String type) {
+		var field = table.getColumns().get(name);
+		var column = field.getAnnotation(Column.class);
+		var quoted = "\"" + name + "\"";
+
+		if(type.endsWith("serial")) {
+			steps.add(new Step("Add column " + name, "alter table " + table.getName() + " add column " + quoted + " " + type, false));
+			return;
+		}
+
+		var modifier = column.modifier();
+
+		var defaultMatcher = DEFAULT.matcher(modifier);
+		var defaultValue = defaultMatcher.find() ? defaultMatcher.group(1) : null;
+		var notNull = NOT_NULL.matcher(modifier).find();
+
+		var remaining = NULL.matcher(NOT_NULL.matcher(DEFAULT.matcher(modifier).replaceAll("")).replaceAll("")).replaceAll("").trim();
+		if(!remaining.isEmpty()) {
+			//Modifiers like references or check constraints are applied as declared
+			steps.add(new Step("Add column " + name, "alter table " + table.getName() + " add column " + quoted + " " + type + " " + modifier + (column.unique() ? " unique" : ""), false));
+			return;
+		}
+
+		steps.add(new Step("Add column " + name, "alter table " + table.getName() + " add column " + quoted + " " + type, false));
+
+		if(defaultValue != null) {
+			steps.add(new Step("Set default of " + name, "alter table " + table.getName() + " alter column " + quoted + " set default " + defaultValue, false));
+			//A null default leaves the rows null, so the repeated backfill would never finish. The expression is not evaluated, because defaults like nextval() have side effects
+			if(!NULL_LITERAL.matcher(defaultValue).matches()) steps.add(new Step("Backfill " + name, "update " + table.getName() + " set " + quoted + " = default where ctid = any(array(select ctid from " + table.getName() + " where " + quoted + " is null limit <batch>))", true));
+		}
+
+		if(notNull) {
+			var constraint = "\"" + table.getName() + "_" + name + "_not_null\"";
+
+			steps.add(new Step("Add not null check for " + name, "alter table " + table.getName() + " add constraint " + constraint + " check (" + quoted + " is not null) not valid", false));
+			steps.add(new Step("Validate not null check for " + name, "alter table " + table.getName() + " validate constraint " + constraint, false));
+			steps.add(new Step("Set " + name + " not null", "alter table " + table.getName() + " alter column " + quoted + " set not null", false));
+			steps.add(new Step("Drop not null check for " + name, "alter table " + table.getName() + " drop constraint " + constraint, false));
+		}
+
+		if(column.unique()) {
+			var index = "\"" + table.getName() + "_" + name + "_key\"";
+
+			steps.add(new Step("Create unique index on " + name, "create unique index concurrently if not exists " + index + " on " + table.getName() + " (" + quoted + ")", false));
+			steps.add(new Step("Add unique constraint on " + name, "alter table " + table.getName() + " add constraint " + index + " unique using index " + index, false));
+		}
+	}
+
+	@NotNull
+	public SchemaMigration batchSize(int batchSize) {
+		if(batchSize <= 0) throw new IllegalArgumentException("batchSize has to be positive");
+
+		this.batchSize = batchSize;
+		return this;
+	}
+
+	/**
+	 * @return the steps that {@link #apply()} executes, in order
+	 */
+	@NotNull
+	public List<Step> getSteps() {
+		return steps.stream().map(this::render).toList();
+	}
+
+	private Step render(Step step) {
+		return new Step(step.description(), step.sql().replace("<batch>", String.valueOf(batchSize)), step.repeat());
+	}
+
+	/**
+	 * @return columns whose type in the database differs from the declared type
+	 */
+	@NotNull
+	public List<String> getMismatches() {
+		return Collections.unmodifiableList(mismatches);
+	}
+
+	/**
+	 * @return columns that exist in the database, but are not declared
+	 */
+	@NotNull
+	public List<String> getUnknownColumns() {
+		return Collections.unmodifiableList(unknown);
+	}
+
+	public boolean isEmpty() {
+		return steps.isEmpty();
+	}
+
+	/**
+	 * Executes all steps. Every step runs in its own transaction, so a failed migration can be continued by planning it again.
+	 */
+	public void apply() {
+		mismatches.forEach(m -> DatabaseManager.logger.warn("Column type mismatch in table {}: {}", table.getName(), m));
+
+		for(var step : steps) {
+			DatabaseManager.logger.info("Migrating table {}: {}", table.getName(), step.description());
+
+			table.useHandle(handle -> {
+				if(!step.repeat()) handle.execute(step.sql());
+				else while(handle.createUpdate(step.sql()).define("batch", batchSize).execute() > 0);
+			});
+		}
+	}
+
+	@Override
+	public String toString() {
+		var result = new StringBuilder("Migration of " + table.getName() + ":");
+
+		steps.forEach(s -> result.append("\n  ").append(render(s)));
+		mismatches.forEach(m -> result.append("\n  Type mismatch ").append(m));
+		unknown.forEach(c -> result.append("\n  Unknown column ").append(c));
+
+		return result.toString();
+	}
+}
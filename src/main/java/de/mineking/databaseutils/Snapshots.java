@@ -0,0 +1,56 @@
+package de.mineking.databaseutils;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Stores the column values of objects as they were read from the database. Objects are compared by identity and do not need to implement equals and hashCode.
+ */
+class Snapshots {
+	private final ReferenceQueue<Object> queue = new ReferenceQueue<>();
+	private final Map<Key, Object[]> snapshots = new HashMap<>();
+
+	synchronized void put(Object object, Object[] snapshot) {
+		expunge();
+		snapshots.put(new Key(object, queue), snapshot);
+	}
+
+	synchronized Object[] get(Object object) {
+		expunge();
+		return snapshots.get(new Key(object, null));
+	}
+
+	synchronized void remove(Object object) {
+		expunge();
+		snapshots.remove(new Key(object, null));
+	}
+
+	private void expunge() {
+		for(Reference<?> key; (key = queue.poll()) != null; ) snapshots.remove(key);
+	}
+
+	private static class Key extends WeakReference<Object> {
+		private final int hash;
+
+		Key(Object object, ReferenceQueue<Object> queue) {
+			super(object, queue);
+			this.hash = System.identityHashCode(object);
+		}
+
+		@Override
+		public int hashCode() {
+			return hash;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if(this == obj) return true;
+
+			var object = get();
+			return object != null && obj instanceof Key k && k.get() == object;
+		}
+	}
+}
@@ -0,0 +1,134 @@
+package de.mineking.databaseutils;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.ToNumberPolicy;
+import com.google.gson.reflect.TypeToken;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+public class Subscription<T> implements AutoCloseable {
+	private final static Gson gson = new GsonBuilder().setObjectToNumberStrategy(ToNumberPolicy.LONG_OR_DOUBLE).create();
+	private final static java.lang.reflect.Type keyType = new TypeToken<Map<String, Object>>() {}.getType();
+
+	private final static ExecutorService executor = Executors.newCachedThreadPool(r -> {
+		var thread = new Thread(r, "DatabaseUtils-Subscription");
+		thread.setDaemon(true);
+		return thread;
+	});
+
+	private record Notification(ChangeEvent.Type type, String key) {}
+
+	private final TableImpl<T> table;
+	private final Where where;
+	private final boolean hydrate;
+	private final Consumer<ChangeEvent<T>> consumer;
+
+	private final Queue<Notification> pending = new ConcurrentLinkedQueue<>();
+	private final AtomicBoolean scheduled = new AtomicBoolean(false);
+	private final Consumer<String> handler = this::receive;
+
+	private volatile boolean active = true;
+
+	Subscription(@NotNull TableImpl<T> table, @NotNull Where where, boolean hydrate, @NotNull Consumer<ChangeEvent<T>> consumer) {
+		if(!hydrate && !where.get().isEmpty()) throw new IllegalArgumentException("Conditions can only be applied to subscriptions with hydration");
+
+		this.table = table;
+		this.where = where;
+		this.hydrate = hydrate;
+		this.consumer = consumer;
+
+		table.getManager().listen(table.getChangeChannel(), handler);
+	}
+
+	@NotNull
+	public Table<T> getTable() {
+		return table;
+	}
+
+	/**
+	 * @return a future that completes once changes of the table are received. Changes made before are not delivered.
+	 */
+	@NotNull
+	public CompletableFuture<Void> getListening() {
+		return table.getManager().listening(table.getChangeChannel());
+	}
+
+	@Override
+	public void close() {
+		active = false;
+		table.getManager().unlisten(table.getChangeChannel(), handler);
+	}
+
+	private void receive(String payload) {
+		if(!active) return;
+
+		//Payload format: '<operation> <key as jsonb>'
+		var separator = payload.indexOf(' ');
+		pending.add(new Notification(ChangeEvent.Type.valueOf(payload.substring(0, separator)), payload.substring(separator + 1)));
+
+		if(scheduled.compareAndSet(false, true)) executor.execute(this::deliver);
+	}
+
+	private void deliver() {
+		//Only one delivery runs at a time. The flag is cleared after draining, so notifications are delivered in order
+		do {
+			var batch = new ArrayList<Notification>();
+			for(Notification n; (n = pending.poll()) != null; ) batch.add(n);
+			if(!batch.isEmpty() && active) deliver(batch);
+
+			scheduled.set(false);
+		} while(!pending.isEmpty() && scheduled.compareAndSet(false, true));
+	}
+
+	private void deliver(List<Notification> batch) {
+		try {
+			var objects = hydrate ? load(batch) : Map.<String, T>of();
+
+			for(var notification : batch) {
+				var object = objects.get(notification.key());
+				if(hydrate && notification.type() != ChangeEvent.Type.DELETE && object == null) continue; //Row doesn't match the condition or no longer exists
+
+				consumer.accept(new ChangeEvent<>(table, notification.type(), gson.fromJson(notification.key(), keyType), object));
+			}
+		} catch(Exception e) {
+			DatabaseManager.logger.error("Failed to deliver change events for table '" + table.getName() + "'", e);
+		}
+	}
+
+	private Map<String, T> load(List<Notification> batch) {
+		var keys = batch.stream()
+				.filter(n -> n.type() != ChangeEvent.Type.DELETE)
+				.map(Notification::key)
+				.distinct()
+				.toList();
+		if(keys.isEmpty()) return Map.of();
+
+		var columns = table.getKeys().keySet().stream().map(k -> '"' + k + '"').collect(Collectors.joining(", "));
+		var json = "[" + String.join(", ", keys) + "]";
+
+		var condition = new Where.WhereImpl("(" + columns + ") in (select " + columns + " from json_populate_recordset(null::" + table.getName() + ", cast(:keys as json)))",
+				Map.of("keys", ArgumentFactory.create("keys", json, t -> (position, statement, ctx) -> statement.setString(position, json)))
+		);
+		var filter = Where.allOf(condition, where);
+
+		var key = table.getKeys().entrySet().stream().map(e -> "'" + e.getKey() + "', \"" + e.getKey() + '"').collect(Collectors.joining(", "));
+
+		return table.withHandle(filter, handle -> handle.createQuery("select *, jsonb_build_object(<key>)::text as \"databaseutils_key\" from <name> <where>")
+				.define("key", key)
+				.define("name", table.getName())
+				.define("where", filter.format())
+				.bindMap(filter.formatValues(table))
+				.map((set, ctx) -> Map.entry(set.getString("databaseutils_key"), table.createObject(set, ctx)))
+				.list()
+		).stream().collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue, (a, b) -> a));
+	}
+}
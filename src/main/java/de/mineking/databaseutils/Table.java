@@ -1,12 +1,16 @@
 package de.mineking.databaseutils;
 
 import de.mineking.databaseutils.exception.ConflictException;
+import de.mineking.databaseutils.exception.VersionMismatchException;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 import java.lang.reflect.Field;
+import java.time.Instant;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 public interface Table<T> {
 	@NotNull
@@ -22,6 +26,43 @@ public interface Table<T> {
 	@NotNull
 	void createIfNotExists();
 
+	/**
+	 * Compares the declared columns with the existing table. Nothing is changed until {@link SchemaMigration#apply()} is called.
+	 */
+	@NotNull
+	SchemaMigration planMigration();
+
+	/**
+	 * Switches the table between logged and unlogged. Unlogged tables are faster to write, but are emptied after a crash and not replicated. This rewrites the whole table.
+	 */
+	void setLogged(boolean logged);
+
+	/**
+	 * Creates the partitions of a partitioned table that don't exist yet. For range partitioning, this has to be called regularly (like once a day) so partitions for future rows exist.
+	 */
+	void createPartitions();
+
+	/**
+	 * Detaches all range partitions that only contain rows before the provided time. The partitions are kept as standalone tables.
+	 *
+	 * @return the names of the detached partitions
+	 */
+	@NotNull
+	List<String> detachPartitions(@NotNull Instant before);
+
+	/**
+	 * Drops all range partitions that only contain rows before the provided time
+	 *
+	 * @return the names of the dropped partitions
+	 */
+	@NotNull
+	List<String> dropPartitions(@NotNull Instant before);
+
+	/**
+	 * Installs a trigger that notifies subscribers about inserted, updated and deleted rows
+	 */
+	void createChangeTrigger();
+
 	@NotNull
 	Map<String, Field> getColumns();
 
@@ -31,6 +72,12 @@ public interface Table<T> {
 	@NotNull
 	Map<String, Field> getKeys();
 
+	/**
+	 * @return the name of the column annotated with {@link Version} or {@code null} if the table has no version column
+	 */
+	@Nullable
+	String getVersionColumn();
+
 
 	int getRowCount(@NotNull Where where);
 
@@ -38,6 +85,17 @@ public interface Table<T> {
 		return getRowCount(Where.empty());
 	}
 
+	/**
+	 * Creates a query whose sql and arguments are only computed once. Use {@link Where#parameter(String)} in place of values that change between executions.
+	 */
+	@NotNull
+	PreparedQuery<T> prepare(@NotNull Where where, @NotNull Order order);
+
+	@NotNull
+	default PreparedQuery<T> prepare(@NotNull Where where) {
+		return prepare(where, Order.empty());
+	}
+
 	@NotNull
 	Optional<T> selectOne(@NotNull Where where);
 
@@ -58,14 +116,57 @@ public interface Table<T> {
 		return selectAll(Order.empty());
 	}
 
+	/**
+	 * Subscribes to changes of this table. Requires the trigger installed by {@link #createChangeTrigger()}. Events are delivered asynchronously in the order they were received.
+	 *
+	 * @param where    the condition changed rows have to match. Deleted rows are always delivered, because their data is no longer available
+	 * @param hydrate  whether to load the current state of changed rows. Rows of events received at once are loaded with a single query
+	 * @param consumer the consumer to deliver events to
+	 */
+	@NotNull
+	Subscription<T> subscribe(@NotNull Where where, boolean hydrate, @NotNull Consumer<ChangeEvent<T>> consumer);
+
+	@NotNull
+	default Subscription<T> subscribe(@NotNull Where where, @NotNull Consumer<ChangeEvent<T>> consumer) {
+		return subscribe(where, true, consumer);
+	}
+
+	@NotNull
+	default Subscription<T> subscribe(@NotNull Consumer<ChangeEvent<T>> consumer) {
+		return subscribe(Where.empty(), false, consumer);
+	}
+
 	@NotNull
 	T insert(@NotNull T object) throws ConflictException;
 
 	@NotNull
-	T update(@NotNull T object) throws ConflictException;
+	T update(@NotNull T object) throws ConflictException, VersionMismatchException;
 
 	void updateField(@NotNull Where where, @NotNull String name, @NotNull Object value);
 
+	/**
+	 * Updates all rows matching the condition in a single statement. Assignments are evaluated by the database, so they can depend on the current values of the row.
+	 *
+	 * @return the number of updated rows
+	 */
+	int update(@NotNull Where where, @NotNull Assignment assignment);
+
+	/**
+	 * Same as {@link #update(Where, Assignment)} but returns the updated rows with their new values
+	 */
+	@NotNull
+	List<T> updateReturning(@NotNull Where where, @NotNull Assignment assignment);
+
+	/**
+	 * Writes all updates buffered by the write-behind mode of this table. Does nothing if the table doesn't buffer updates.
+	 */
+	void flush();
+
+	/**
+	 * Flushes buffered updates, closes the connection of a temporary table and removes the table from its manager. Tables are closed with their manager.
+	 */
+	void close();
+
 	@NotNull
 	default T upsert(@NotNull T object) throws ConflictException {
 		try {
@@ -77,7 +178,7 @@ public interface Table<T> {
 
 	int delete(@NotNull Where where);
 
-	default int delete(@NotNull T object) {
+	default int delete(@NotNull T object) throws VersionMismatchException {
 		return delete(Where.identify(this, object));
 	}
 
@@ -0,0 +1,30 @@
+package de.mineking.databaseutils;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.time.Duration;
+import java.util.function.BiConsumer;
+import java.util.function.Supplier;
+
+/**
+ * The resolved configuration of a table. Created by {@link DatabaseManager.TableBuilder#get()}, so later changes of the builder don't affect existing tables.
+ */
+record TableConfig<T>(
+		@NotNull Class<T> type,
+		@NotNull Supplier<T> instance,
+		@NotNull String name,
+		@Nullable Class<? extends Table<T>> table,
+		@Nullable Duration cacheDuration,
+		int cacheSize,
+		boolean notifyChanges,
+		boolean dirtyTracking,
+		boolean migrate,
+		@Nullable Partitioning partitioning,
+		boolean unlogged,
+		boolean temporary,
+		@Nullable Duration writeBehindStaleness,
+		int writeBehindBatchSize,
+		int writeBehindCapacity,
+		@Nullable BiConsumer<T, Exception> writeBehindFailure
+) {}
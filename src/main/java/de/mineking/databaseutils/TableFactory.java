@@ -0,0 +1,21 @@
+package de.mineking.databaseutils;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.function.Function;
+
+/**
+ * Creates instances of a custom {@link Table} interface without {@link java.lang.reflect.Proxy}. Implementations are generated at compile time by the <code>DatabaseUtils-processor</code> annotation processor and found with {@link java.util.ServiceLoader}.
+ * {@link DatabaseManager.TableBuilder#table(Class)} uses the factory of the interface automatically when one is available.
+ */
+public interface TableFactory<T extends Table<?>> {
+	@NotNull
+	Class<T> getType();
+
+	/**
+	 * @param table   the table to delegate the methods of {@link Table} to
+	 * @param queries resolves the implementation of other abstract methods by their signature, like <code>findByName(java.lang.String)</code>
+	 */
+	@NotNull
+	T create(@NotNull Table<?> table, @NotNull Function<String, QueryMethod> queries);
+}
@@ -1,14 +1,27 @@
 package de.mineking.databaseutils;
 
 import de.mineking.databaseutils.exception.ConflictException;
+import de.mineking.databaseutils.exception.VersionMismatchException;
+import de.mineking.databaseutils.type.PostgresType;
+import org.jdbi.v3.core.Handle;
+import org.jdbi.v3.core.HandleCallback;
+import org.jdbi.v3.core.HandleConsumer;
 import org.jdbi.v3.core.statement.StatementContext;
 import org.jdbi.v3.core.statement.Update;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 import java.lang.reflect.*;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.function.Supplier;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
@@ -17,24 +30,88 @@ public class TableImpl<T> implements InvocationHandler, Table<T> {
 	private final String name;
 	private final Supplier<T> instance;
 	private final DatabaseManager manager;
+	private final QueryCache cache;
+	private final boolean notifyChanges;
+	private final boolean migrate;
+	private final Partitioning partitioning;
+	private final boolean unlogged;
+	private final boolean temporary;
+
+	//Temporary tables only exist for a single connection, so all statements of the table use the same handle. It is opened by the first statement
+	private final Object temporaryLock = new Object();
+	private Handle temporaryHandle;
+	private boolean closed = false;
 
 	private final Map<String, Field> columns = new LinkedHashMap<>();
 	private final Map<String, Field> keys = new LinkedHashMap<>();
 	private final Map<String, Field> unique = new LinkedHashMap<>();
-
-	TableImpl(DatabaseManager manager, Class<T> type, Supplier<T> instance, String name) {
+	private String version;
+
+	private final Map<Field, TypeMapper<Object, Object>> mappers = new ConcurrentHashMap<>();
+	private volatile int mapperGeneration;
+	private final Snapshots snapshots;
+	private final WriteBehind<T> writeBehind;
+	private final Indexes indexes;
+	private final EntityAccessor<T> accessor;
+	private final Map<Field, Integer> indices = new HashMap<>();
+	private final Map<Method, QueryMethod> queries;
+
+	TableImpl(DatabaseManager manager, TableConfig<T> config) {
 		this.manager = manager;
-		this.instance = instance;
-		this.name = name;
+		this.mapperGeneration = manager.getMapperGeneration();
+		this.instance = config.instance();
+		this.name = config.name();
+		this.cache = config.cacheDuration() == null ? null : new QueryCache(config.cacheDuration(), config.cacheSize());
+		this.notifyChanges = config.notifyChanges();
+		this.migrate = config.migrate();
+		this.partitioning = config.partitioning();
+		this.unlogged = config.unlogged();
+		this.snapshots = config.dirtyTracking() ? new Snapshots() : null;
+
+		//A generated accessor reads and writes the columns directly, so the fields are only looked up for their metadata and never made accessible
+		this.accessor = Generated.getAccessor(config.type());
+		var fields = accessor == null ? Arrays.asList(config.type().getDeclaredFields()) : accessor.getFields().stream().map(f -> {
+			try {
+				return config.type().getDeclaredField(f);
+			} catch(NoSuchFieldException e) {
+				throw new IllegalStateException("Generated accessor of " + config.type().getName() + " is outdated", e);
+			}
+		}).toList();
 
-		for(var f : type.getDeclaredFields()) {
+		for(var f : fields) {
 			if(!f.isAnnotationPresent(Column.class)) continue;
 
-			f.setAccessible(true);
+			if(accessor == null) f.setAccessible(true);
+			else indices.put(f, indices.size());
 
 			columns.put(getColumnName(f), f);
 			if(f.getAnnotation(Column.class).key()) keys.put(getColumnName(f), f);
 			if(f.getAnnotation(Column.class).key() || f.getAnnotation(Column.class).unique()) unique.put(getColumnName(f), f);
+
+			if(f.isAnnotationPresent(Version.class)) {
+				if(version != null) throw new IllegalStateException("Table cannot have multiple version columns");
+				if(!f.getType().equals(int.class) && !f.getType().equals(long.class)) throw new IllegalStateException("Version column has to be int or long");
+
+				version = getColumnName(f);
+			}
+		}
+
+		if(config.writeBehindStaleness() != null) {
+			if(keys.isEmpty()) throw new IllegalStateException("Cannot buffer updates of a table without keys");
+			//Buffered updates are merged and written later, so they cannot be checked against the version of the row
+			if(version != null) throw new IllegalStateException("Cannot buffer updates of a table with a version column");
+			this.writeBehind = new WriteBehind<>(this, config.writeBehindStaleness(), config.writeBehindBatchSize(), config.writeBehindCapacity(), config.writeBehindFailure());
+		} else this.writeBehind = null;
+
+		this.indexes = new Indexes(this, config.type());
+		this.queries = config.table() == null ? Map.of() : QueryMethods.parse(this, config.table(), config.type());
+
+		this.temporary = config.temporary();
+		if(temporary && partitioning != null) throw new IllegalStateException("Temporary tables cannot be partitioned");
+
+		if(partitioning != null) {
+			if(!columns.containsKey(partitioning.column)) throw new IllegalStateException("Table has no column with name '" + partitioning.column + "'");
+			if(!keys.isEmpty() && !keys.containsKey(partitioning.column)) throw new IllegalStateException("The partition column has to be part of the primary key");
 		}
 	}
 
@@ -58,6 +135,15 @@ public class TableImpl<T> implements InvocationHandler, Table<T> {
 
 	@Override
 	public void createIfNotExists() {
+		useHandle(this::createTable);
+		initialize();
+	}
+
+	boolean isTemporary() {
+		return temporary;
+	}
+
+	void createTable(@NotNull Handle handle) {
 		var columns = Stream.concat(
 				this.keys.entrySet().stream(),
 				this.columns.entrySet().stream().filter(e -> !keys.containsKey(e.getKey()))
@@ -69,13 +155,175 @@ public class TableImpl<T> implements InvocationHandler, Table<T> {
 
 		if(!this.keys.isEmpty()) columns += ", primary key(" + this.keys.keySet().stream().map(field -> '"' + field + '"').collect(Collectors.joining(", ")) + ")";
 
-		final var fColumns = columns; //Because java
-
-		manager.db.useHandle(handle -> handle.createUpdate("create table if not exists <name>(<columns>)")
+		handle.createUpdate("create <mode> table if not exists <name>(<columns>) <partitioning>")
+				.define("mode", temporary ? "temporary" : unlogged ? "unlogged" : "")
 				.define("name", name)
-				.define("columns", fColumns)
-				.execute()
-		);
+				.define("columns", columns)
+				.define("partitioning", partitioning == null ? "" : partitioning.format())
+				.execute();
+	}
+
+	/**
+	 * Creates everything that belongs to the table after the table itself exists
+	 */
+	void initialize() {
+		initialize(null);
+	}
+
+	/**
+	 * @param indexes the existing indexes of the table if they were already loaded
+	 */
+	void initialize(@Nullable Map<String, Indexes.Existing> indexes) {
+		if(partitioning != null) createPartitions();
+
+		if(migrate) {
+			var migration = planMigration();
+			if(!migration.isEmpty() || !migration.getMismatches().isEmpty()) {
+				migration.apply();
+				indexes = null; //The migration might have created unique indexes
+			}
+		}
+
+		this.indexes.reconcile(indexes);
+		if(notifyChanges) createChangeTrigger();
+	}
+
+	@NotNull
+	@Override
+	public SchemaMigration planMigration() {
+		return new SchemaMigration(this);
+	}
+
+	@Override
+	public void createPartitions() {
+		if(partitioning == null) throw new IllegalStateException("Table is not partitioned");
+
+		useHandle(handle -> {
+			if(partitioning.isRange()) {
+				var zone = getPartitionZone();
+				var start = partitioning.interval.start(LocalDate.now(zone));
+
+				for(int i = 0; i <= partitioning.premake; i++) {
+					var end = partitioning.interval.next(start);
+
+					handle.createUpdate("create table if not exists <partition> partition of <name> for values from ('<from> 00:00:00<offset>') to ('<to> 00:00:00<offset>')")
+							.define("partition", Partitioning.getPartitionName(name, start))
+							.define("name", name)
+							.define("from", start)
+							.define("to", end)
+							.define("offset", zone == ZoneOffset.UTC ? "+00" : "")
+							.execute();
+
+					start = end;
+				}
+			} else {
+				for(int i = 0; i < partitioning.partitions; i++) {
+					handle.createUpdate("create table if not exists <name>_h<remainder> partition of <name> for values with (modulus <modulus>, remainder <remainder>)")
+							.define("name", name)
+							.define("modulus", partitioning.partitions)
+							.define("remainder", i)
+							.execute();
+				}
+			}
+		});
+	}
+
+	@NotNull
+	@Override
+	public List<String> detachPartitions(@NotNull Instant before) {
+		return removePartitions(before, false);
+	}
+
+	@NotNull
+	@Override
+	public List<String> dropPartitions(@NotNull Instant before) {
+		return removePartitions(before, true);
+	}
+
+	@NotNull
+	private List<String> removePartitions(@NotNull Instant before, boolean drop) {
+		if(partitioning == null || !partitioning.isRange()) throw new IllegalStateException("Table is not partitioned by range");
+
+		var limit = before.atZone(getPartitionZone()).toLocalDate();
+
+		return inTransaction(handle -> {
+			var removed = handle.createQuery("select c.relname from pg_inherits i join pg_class c on c.oid = i.inhrelid where i.inhparent = to_regclass(:name)")
+					.bind("name", name)
+					.mapTo(String.class)
+					.list().stream()
+					.filter(p -> p.startsWith(name.toLowerCase() + "_p"))
+					.filter(p -> !partitioning.interval.next(Partitioning.getPartitionStart(name, p)).isAfter(limit))
+					.sorted()
+					.toList();
+
+			for(var partition : removed) {
+				handle.createUpdate("alter table <name> detach partition <partition>")
+						.define("name", name)
+						.define("partition", partition)
+						.execute();
+
+				if(drop) handle.createUpdate("drop table <partition>").define("partition", partition).execute();
+			}
+
+			return removed;
+		});
+	}
+
+	/**
+	 * 'timestamp' columns store the local time of the default zone, because values are bound through {@link java.sql.Timestamp}. Partition bounds have to use the same zone.
+	 */
+	@NotNull
+	private ZoneId getPartitionZone() {
+		var field = columns.get(partitioning.column);
+		return field != null && manager.getType(field.getGenericType(), field) == PostgresType.TIMESTAMPTZ ? ZoneOffset.UTC : ZoneId.systemDefault();
+	}
+
+	@Override
+	public void createChangeTrigger() {
+		if(keys.isEmpty()) throw new IllegalStateException("Cannot notify changes of a table without keys");
+
+		var arguments = Stream.concat(Stream.of(getChangeChannel()), keys.keySet().stream())
+				.map(a -> "'" + a + "'")
+				.collect(Collectors.joining(", "));
+
+		useTransaction(handle -> {
+			handle.createUpdate("""
+					create or replace function databaseutils_notify_change() returns trigger as $$
+					declare
+						changed jsonb;
+						identifier jsonb = '{}';
+					begin
+						if TG_OP = 'DELETE' then changed = to_jsonb(OLD); else changed = to_jsonb(NEW); end if;
+						for i in 1 .. TG_NARGS - 1 loop
+							identifier = identifier || jsonb_build_object(TG_ARGV[i], changed -> TG_ARGV[i]);
+						end loop;
+						perform pg_notify(TG_ARGV[0], TG_OP || ' ' || identifier::text);
+						return null;
+					end
+					$$ language plpgsql
+					""").execute();
+
+			handle.createUpdate("drop trigger if exists <name>_changes on <name>")
+					.define("name", name)
+					.execute();
+
+			handle.createUpdate("create trigger <name>_changes after insert or update or delete on <name> for each row execute function databaseutils_notify_change(<arguments>)")
+					.define("name", name)
+					.define("arguments", arguments)
+					.execute();
+		});
+	}
+
+	@NotNull
+	String getChangeChannel() {
+		return name + "_changes";
+	}
+
+	@NotNull
+	@Override
+	public Subscription<T> subscribe(@NotNull Where where, boolean hydrate, @NotNull Consumer<ChangeEvent<T>> consumer) {
+		if(keys.isEmpty()) throw new IllegalStateException("Cannot subscribe to a table without keys");
+		return new Subscription<>(this, where, hydrate, consumer);
 	}
 
 	@NotNull
@@ -96,9 +344,19 @@ public class TableImpl<T> implements InvocationHandler, Table<T> {
 		return keys;
 	}
 
+	@Nullable
+	@Override
+	public String getVersionColumn() {
+		return version;
+	}
+
 	@Override
 	public int getRowCount(@NotNull Where where) {
-		return manager.db.withHandle(handle -> handle.createQuery("select count(*) from <name> <where>")
+		return count(where, true);
+	}
+
+	private int count(Where where, boolean replicated) {
+		return read(where, replicated, handle -> handle.createQuery("select count(*) from <name> <where>")
 				.define("name", name)
 				.define("where", where.format())
 				.bindMap(where.formatValues(this))
@@ -110,7 +368,7 @@ public class TableImpl<T> implements InvocationHandler, Table<T> {
 	@NotNull
 	@Override
 	public Optional<T> selectOne(@NotNull Where where) {
-		return manager.db.withHandle(handle -> handle.createQuery("select * from <name> <where>")
+		return read(where, handle -> handle.createQuery("select * from <name> <where>")
 				.define("name", name)
 				.define("where", where.format())
 				.bindMap(where.formatValues(this))
@@ -122,7 +380,20 @@ public class TableImpl<T> implements InvocationHandler, Table<T> {
 	@NotNull
 	@Override
 	public List<T> selectMany(@NotNull Where where, @NotNull Order order) {
-		return manager.db.withHandle(handle -> handle.createQuery("select * from <name> <where> <order>")
+		//Rows are cached as their column values, so every caller gets its own objects
+		if(cache != null) return cache.get(where, order, () -> loadCached(where, order)).stream().map(values -> materialize(instance.get(), values, true)).toList();
+
+		return load(where, order, true);
+	}
+
+	@NotNull
+	@Override
+	public PreparedQuery<T> prepare(@NotNull Where where, @NotNull Order order) {
+		return new PreparedQuery<>(this, where, order);
+	}
+
+	private List<T> load(Where where, Order order, boolean replicated) {
+		return read(where, replicated, handle -> handle.createQuery("select * from <name> <where> <order>")
 				.define("name", name)
 				.define("where", where.format())
 				.bindMap(where.formatValues(this))
@@ -132,18 +403,107 @@ public class TableImpl<T> implements InvocationHandler, Table<T> {
 		);
 	}
 
+	/**
+	 * Loads the column values of rows for the cache. They are always loaded from the primary, even if the table was not written recently.
+	 * Otherwise, a lagging replica could put outdated rows into the cache after a local write or an invalidation from another node cleared it, and they would stay there until the next write.
+	 */
+	private List<Object[]> loadCached(Where where, Order order) {
+		return withHandle(where, handle -> handle.createQuery("select * from <name> <where> <order>")
+				.define("name", name)
+				.define("where", where.format())
+				.bindMap(where.formatValues(this))
+				.define("order", order.format())
+				.map((set, ctx) -> extract(set))
+				.list()
+		);
+	}
+
 	public T createObject(ResultSet set, StatementContext context) {
-		var instance = this.instance.get();
+		return materialize(instance.get(), extract(set), false);
+	}
+
+	@NotNull
+	private Object[] extract(ResultSet set) {
+		var values = new Object[columns.size()];
+		var i = 0;
 
-		columns.forEach((name, field) -> {
+		for(var e : columns.entrySet()) {
 			try {
-				field.set(instance, manager.parse(field.getGenericType(), field, manager.extract(field.getGenericType(), field, name, set)));
-			} catch(IllegalAccessException | SQLException e) {
-				throw new RuntimeException(e);
+				values[i++] = getMapper(e.getValue()).extract(set, e.getKey(), e.getValue().getGenericType());
+			} catch(SQLException ex) {
+				throw new RuntimeException(ex);
 			}
-		});
+		}
+
+		return values;
+	}
+
+	/**
+	 * @param shared whether the values are used for multiple objects. Arrays are copied then, so the objects don't modify each other
+	 */
+	@NotNull
+	private T materialize(T object, Object[] values, boolean shared) {
+		var i = 0;
+
+		for(var field : columns.values()) {
+			var mapper = getMapper(field);
+			var value = values[i];
+
+			try {
+				var parsed = mapper.parse(manager, field.getGenericType(), field, shared ? copy(value) : value);
+
+				if(accessor != null) accessor.set(object, indices.get(field), parsed);
+				else field.set(object, parsed);
+			} catch(IllegalAccessException ex) {
+				throw new RuntimeException(ex);
+			}
+
+			i++;
+		}
+
+		//The extracted values are only parsed and formatted again by update(), so reads don't format every column. Arrays are copied because the parsed field might be the same array
+		if(snapshots != null) snapshots.put(object, shared ? values : Arrays.stream(values).map(TableImpl::copy).toArray());
+		return object;
+	}
+
+	@Nullable
+	private static Object copy(@Nullable Object value) {
+		if(value == null || !value.getClass().isArray()) return value;
+
+		var length = Array.getLength(value);
+		var result = Array.newInstance(value.getClass().getComponentType(), length);
+		System.arraycopy(value, 0, result, 0, length);
+		return result;
+	}
 
-		return instance;
+	@NotNull
+	TypeMapper<Object, Object> getMapper(@NotNull Field field) {
+		var generation = manager.getMapperGeneration();
+		if(generation != mapperGeneration) {
+			mappers.clear();
+			mapperGeneration = generation;
+		}
+
+		return mappers.computeIfAbsent(field, f -> manager.getMapper(f.getGenericType(), f));
+	}
+
+	@Nullable
+	private Object format(@NotNull T object, @NotNull Field field) {
+		return getMapper(field).format(manager, field.getGenericType(), field, getValue(object, field));
+	}
+
+	/**
+	 * Reads a column of the object. All reads of columns have to use this, because fields are not made accessible when a generated accessor exists.
+	 */
+	@Nullable
+	@SuppressWarnings("unchecked")
+	Object getValue(@NotNull Object object, @NotNull Field field) {
+		try {
+			if(accessor != null) return accessor.get((T) object, indices.get(field));
+			return field.get(object);
+		} catch(IllegalAccessException e) {
+			throw new RuntimeException(e);
+		}
 	}
 
 	public static String getColumnName(Field field) {
@@ -153,21 +513,58 @@ public class TableImpl<T> implements InvocationHandler, Table<T> {
 
 	@Override
 	public int delete(@NotNull Where where) {
-		return manager.db.withHandle(handle -> handle.createUpdate("delete from <name> <where>")
+		//Buffered updates of the affected rows have to be written first, otherwise they would be applied to the rows after this statement
+		flush();
+
+		var deleted = withHandle(where, handle -> handle.createUpdate("delete from <name> <where>")
 				.define("name", name)
 				.define("where", where.format())
 				.bindMap(where.formatValues(this))
 				.execute()
 		);
+
+		written();
+		return deleted;
+	}
+
+	void written() {
+		written((Set<String>) null);
+	}
+
+	private void written(T object) {
+		written(keys.isEmpty() || manager.getInvalidationBus() == null ? null : Set.of(getKey(object)));
+	}
+
+	void written(@Nullable Set<String> keys) {
+		invalidateLocal();
+		manager.replicas.written(name);
+
+		var bus = manager.getInvalidationBus();
+		if(bus != null) bus.publish(name, keys);
+	}
+
+	void invalidateLocal() {
+		if(cache != null) cache.invalidate();
+	}
+
+	@NotNull
+	String getKey(@NotNull T object) {
+		return keys.values().stream()
+				.map(f -> String.valueOf(format(object, f)))
+				.collect(Collectors.joining(","));
 	}
 
 	public boolean execute(@NotNull T object, @NotNull Update query) {
-		columns.forEach((name, field) -> {
-			try {
-				query.bind(name, manager.getArgument(field.getGenericType(), field, field.get(object)));
-			} catch(IllegalAccessException e) {
-				throw new RuntimeException(e);
-			}
+		var values = new LinkedHashMap<String, Object>();
+		columns.forEach((name, field) -> values.put(name, format(object, field)));
+
+		return execute(object, query, values);
+	}
+
+	private boolean execute(T object, Update query, Map<String, Object> values) {
+		values.forEach((name, value) -> {
+			var field = columns.get(name);
+			query.bind(name, getMapper(field).createArgument(manager, field.getGenericType(), field, value));
 		});
 
 		return query.execute((statementSupplier, ctx) -> {
@@ -175,13 +572,7 @@ public class TableImpl<T> implements InvocationHandler, Table<T> {
 			var rs = stmt.getResultSet();
 
 			if(rs.next()) {
-				columns.forEach((name, field) -> {
-					try {
-						field.set(object, manager.parse(field.getGenericType(), field, manager.extract(field.getGenericType(), field, name, rs)));
-					} catch(IllegalAccessException | SQLException e) {
-						throw new RuntimeException(e);
-					}
-				});
+				materialize(object, extract(rs), false);
 				return true;
 			} else return false;
 		});
@@ -193,27 +584,15 @@ public class TableImpl<T> implements InvocationHandler, Table<T> {
 		var check = Where.detectConflict(this, object, true);
 		var sql = "insert into <name>(<columns>) (select <values> where not exists (select from <name> <where>)) returning *";
 
-		var updated = manager.db.withHandle(handle -> execute(object, handle.createUpdate(sql)
+		var updated = withHandle(handle -> execute(object, handle.createUpdate(sql)
 				.define("name", name)
 				.define("columns", columns.entrySet().stream()
-						.filter(e -> {
-							try {
-								return !(e.getValue().getAnnotation(Column.class).autoincrement() && ((Number) e.getValue().get(object)).longValue() <= 0);
-							} catch(IllegalAccessException ex) {
-								throw new RuntimeException(ex);
-							}
-						})
+						.filter(e -> !(e.getValue().getAnnotation(Column.class).autoincrement() && ((Number) getValue(object, e.getValue())).longValue() <= 0))
 						.map(e -> '"' + e.getKey() + '"')
 						.collect(Collectors.joining(", "))
 				)
 				.define("values", columns.entrySet().stream()
-						.filter(e -> {
-							try {
-								return !(e.getValue().getAnnotation(Column.class).autoincrement() && ((Number) e.getValue().get(object)).longValue() <= 0);
-							} catch(IllegalAccessException ex) {
-								throw new RuntimeException(ex);
-							}
-						})
+						.filter(e -> !(e.getValue().getAnnotation(Column.class).autoincrement() && ((Number) getValue(object, e.getValue())).longValue() <= 0))
 						.map(e -> ":" + e.getKey())
 						.collect(Collectors.joining(", "))
 				)
@@ -221,6 +600,8 @@ public class TableImpl<T> implements InvocationHandler, Table<T> {
 				.bindMap(check.formatValues(this))
 		));
 
+		written(object);
+
 		if(updated) return object;
 		else throw new ConflictException();
 	}
@@ -228,6 +609,41 @@ public class TableImpl<T> implements InvocationHandler, Table<T> {
 	@NotNull
 	@Override
 	public T update(@NotNull T object) throws ConflictException {
+		var snapshot = snapshots == null ? null : snapshots.get(object);
+
+		var values = new LinkedHashMap<String, Object>();
+		var i = 0;
+
+		for(var e : columns.entrySet()) {
+			var field = e.getValue();
+			var read = snapshot == null ? null : snapshot[i++];
+			if(keys.containsKey(e.getKey()) || e.getKey().equals(version)) continue;
+
+			var mapper = getMapper(field);
+			var current = getValue(object, field);
+			Object old = null;
+
+			if(snapshot != null) {
+				//Parsing the extracted value again restores the column as it was read
+				old = mapper.parse(manager, field.getGenericType(), field, read);
+				if(Objects.deepEquals(current, old)) continue;
+			}
+
+			//Parsed values don't have to implement equals, so they are compared in the representation that is written
+			var value = mapper.format(manager, field.getGenericType(), field, current);
+			if(snapshot == null || !Objects.deepEquals(value, mapper.format(manager, field.getGenericType(), field, old))) values.put(e.getKey(), value);
+		}
+
+		if(values.isEmpty()) return object;
+
+		if(writeBehind != null) {
+			//The buffered state is written later, so the snapshot no longer reflects the database
+			if(snapshots != null) snapshots.remove(object);
+
+			writeBehind.add(object);
+			return object;
+		}
+
 		var identifier = Where.identify(this, object);
 		var unique = Where.detectConflict(this, object, false);
 
@@ -235,21 +651,242 @@ public class TableImpl<T> implements InvocationHandler, Table<T> {
 		if(this.unique.size() > keys.size()) sql += " and not exists (select from <name> <unique>)";
 		final var fSql = sql + " returning *";
 
-		var updated = manager.db.withHandle(handle -> execute(object, handle.createUpdate(fSql)
+		var updated = withHandle(handle -> execute(object, handle.createUpdate(fSql)
 				.define("name", name)
-				.define("update", columns.keySet().stream()
-						.filter(k -> !this.keys.containsKey(k))
+				.define("update", values.keySet().stream()
 						.map(k -> '"' + k + "\" = :" + k)
-						.collect(Collectors.joining(", "))
+						.collect(Collectors.joining(", ")) + incrementVersion()
 				)
 				.define("where", identifier.format())
 				.define("unique", unique.format())
 				.bindMap(identifier.formatValues(this))
-				.bindMap(unique.formatValues(this))
+				.bindMap(unique.formatValues(this)),
+				values
 		));
 
+		written(object);
+
 		if(updated) return object;
-		else throw new ConflictException();
+
+		checkVersion(object);
+		throw new ConflictException();
+	}
+
+	@Override
+	public int delete(@NotNull T object) throws VersionMismatchException {
+		var deleted = delete(Where.identify(this, object));
+		if(deleted == 0) checkVersion(object);
+
+		return deleted;
+	}
+
+	private String incrementVersion() {
+		return version == null ? "" : ", \"" + version + "\" = \"" + version + "\" + 1";
+	}
+
+	private void checkVersion(T object) throws VersionMismatchException {
+		if(version == null) return;
+
+		if(count(Where.identify(this, object, false).and(Where.notEqual(version, getValue(object, columns.get(version)))), false) > 0) throw new VersionMismatchException();
+	}
+
+	@Override
+	public int update(@NotNull Where where, @NotNull Assignment assignment) {
+		flush();
+
+		var updated = withHandle(where, handle -> handle.createUpdate("update <name> set <assignment> <where>")
+				.define("name", name)
+				.define("assignment", assignment.get() + incrementVersion())
+				.define("where", where.format())
+				.bindMap(assignment.formatValues(this))
+				.bindMap(where.formatValues(this))
+				.execute()
+		);
+
+		written();
+		return updated;
+	}
+
+	@NotNull
+	@Override
+	public List<T> updateReturning(@NotNull Where where, @NotNull Assignment assignment) {
+		flush();
+
+		var updated = withHandle(where, handle -> handle.createQuery("update <name> set <assignment> <where> returning *")
+				.define("name", name)
+				.define("assignment", assignment.get() + incrementVersion())
+				.define("where", where.format())
+				.bindMap(assignment.formatValues(this))
+				.bindMap(where.formatValues(this))
+				.map(this::createObject)
+				.list()
+		);
+
+		written();
+		return updated;
+	}
+
+	/**
+	 * Writes buffered objects. Rows that don't exist anymore are not inserted again.
+	 *
+	 * @return the number of updated rows for every object
+	 */
+	int[] updateBatch(@NotNull List<T> objects) {
+		return withHandle(handle -> {
+			var batch = handle.prepareBatch("update <name> set <update> where <keys>")
+					.define("name", name)
+					.define("update", columns.keySet().stream()
+							.filter(k -> !keys.containsKey(k))
+							.map(k -> '"' + k + "\" = :" + k)
+							.collect(Collectors.joining(", "))
+					)
+					.define("keys", keys.keySet().stream()
+							.map(k -> '"' + k + "\" = :" + k)
+							.collect(Collectors.joining(" and "))
+					);
+
+			for(var object : objects) {
+				columns.forEach((name, field) -> batch.bind(name, getMapper(field).createArgument(manager, field.getGenericType(), field, format(object, field))));
+				batch.add();
+			}
+
+			return batch.execute();
+		});
+	}
+
+	@Override
+	public void flush() {
+		if(writeBehind != null) writeBehind.flush();
+	}
+
+	@Override
+	public void close() {
+		manager.remove(this);
+
+		if(writeBehind != null) writeBehind.close();
+
+		if(temporary) synchronized(temporaryLock) {
+			closed = true;
+			if(temporaryHandle != null) temporaryHandle.close();
+		}
+	}
+
+	@Override
+	public void setLogged(boolean logged) {
+		if(temporary) throw new IllegalStateException("Temporary tables are never logged");
+
+		useHandle(handle -> handle.createUpdate("alter table <name> set <mode>")
+				.define("name", name)
+				.define("mode", logged ? "logged" : "unlogged")
+				.execute()
+		);
+	}
+
+	<R, X extends Exception> R withHandle(@NotNull HandleCallback<R, X> callback) throws X {
+		if(!temporary) return manager.db.withHandle(callback);
+
+		synchronized(temporaryLock) {
+			return callback.withHandle(getTemporaryHandle());
+		}
+	}
+
+	private Handle getTemporaryHandle() {
+		if(closed) throw new IllegalStateException("Temporary table '" + name + "' was closed");
+
+		if(temporaryHandle == null) temporaryHandle = manager.db.open();
+		else {
+			try {
+				//The table was dropped with its connection, so it cannot be used anymore
+				if(temporaryHandle.getConnection().isClosed()) throw new IllegalStateException("The connection of temporary table '" + name + "' was lost, so the table no longer exists");
+			} catch(SQLException e) {
+				throw new RuntimeException(e);
+			}
+		}
+
+		return temporaryHandle;
+	}
+
+	/**
+	 * Runs the callback in a transaction if the condition has to be prepared
+	 */
+	<R> R withHandle(@NotNull Where where, @NotNull HandleCallback<R, RuntimeException> callback) {
+		if(!where.requiresPreparation()) return withHandle(callback);
+
+		return inTransaction(handle -> {
+			where.prepare(handle, this);
+			return callback.withHandle(handle);
+		});
+	}
+
+	/**
+	 * Runs a read on a replica if possible. Reads use the primary if the table is temporary, the condition has to be prepared or the table was written to recently.
+	 */
+	<R> R read(@NotNull Where where, @NotNull HandleCallback<R, RuntimeException> callback) {
+		if(!isReplicated(where)) return withHandle(where, callback);
+		return manager.replicas.withHandle(callback);
+	}
+
+	private <R> R read(@NotNull Where where, boolean replicated, @NotNull HandleCallback<R, RuntimeException> callback) {
+		return replicated ? read(where, callback) : withHandle(where, callback);
+	}
+
+	/**
+	 * Same as {@link #read(Where, HandleCallback)} but keeps the handle until the stream is closed
+	 */
+	@NotNull
+	<R> Stream<R> stream(@NotNull Where where, @NotNull Function<Handle, Stream<R>> callback) {
+		return stream(where, true, callback);
+	}
+
+	@NotNull
+	<R> Stream<R> stream(@NotNull Where where, boolean replicated, @NotNull Function<Handle, Stream<R>> callback) {
+		//Temporary tables and prepared conditions are bound to a handle or transaction that cannot be kept open
+		if(temporary || where.requiresPreparation()) return withHandle(where, handle -> callback.apply(handle).toList()).stream();
+		if(!replicated || !isReplicated(where)) {
+			var handle = manager.db.open();
+
+			try {
+				return callback.apply(handle).onClose(handle::close);
+			} catch(RuntimeException e) {
+				handle.close();
+				throw e;
+			}
+		}
+
+		return manager.replicas.stream(callback);
+	}
+
+	private boolean isReplicated(@NotNull Where where) {
+		return !temporary && !where.requiresPreparation() && manager.replicas.isAvailable(name);
+	}
+
+	<X extends Exception> void useHandle(@NotNull HandleConsumer<X> callback) throws X {
+		withHandle(handle -> {
+			callback.useHandle(handle);
+			return null;
+		});
+	}
+
+	<R, X extends Exception> R inTransaction(@NotNull HandleCallback<R, X> callback) throws X {
+		if(!temporary) return manager.db.inTransaction(callback);
+
+		synchronized(temporaryLock) {
+			return getTemporaryHandle().inTransaction(callback);
+		}
+	}
+
+	<X extends Exception> void useTransaction(@NotNull HandleConsumer<X> callback) throws X {
+		inTransaction(handle -> {
+			callback.useHandle(handle);
+			return null;
+		});
+	}
+
+	/**
+	 * Whether the manager has to keep the table to invalidate its cache or close it
+	 */
+	boolean hasResources() {
+		return cache != null || writeBehind != null || temporary;
 	}
 
 	@Override
@@ -257,14 +894,19 @@ public class TableImpl<T> implements InvocationHandler, Table<T> {
 		var field = columns.get(name);
 		if(field == null) throw new IllegalArgumentException("Column '" + name + "' not found");
 
-		manager.db.useHandle(handle -> handle.createUpdate("update <table> set <name> = :value <where>")
+		flush();
+
+		withHandle(where, handle -> handle.createUpdate("update <table> set <name> = :value<version> <where>")
 				.define("table", this.name)
 				.define("name", name)
+				.define("version", incrementVersion())
 				.define("where", where.format())
 				.bind("value", manager.getArgument(field.getGenericType(), field, value))
 				.bindMap(where.formatValues(this))
 				.execute()
 		);
+
+		written();
 	}
 
 	@Override
@@ -272,8 +914,19 @@ public class TableImpl<T> implements InvocationHandler, Table<T> {
 		return obj instanceof Table<?> t && t.getName().equals(name);
 	}
 
+	@NotNull
+	QueryMethod getQuery(@NotNull String signature) {
+		return queries.entrySet().stream()
+				.filter(e -> QueryMethods.getSignature(e.getKey()).equals(signature))
+				.map(Map.Entry::getValue)
+				.findFirst().orElseThrow(() -> new IllegalStateException("Generated table of " + name + " is outdated, no query method " + signature));
+	}
+
 	@Override
 	public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+		var query = queries.get(method);
+		if(query != null) return query.invoke(args);
+
 		try {
 			return getClass().getMethod(method.getName(), Arrays.stream(method.getParameters()).map(Parameter::getType).toArray(Class[]::new)).invoke(this, args);
 		} catch(IllegalAccessException e) {
@@ -0,0 +1,111 @@
+package de.mineking.databaseutils;
+
+import org.jdbi.v3.core.Handle;
+import org.jdbi.v3.core.argument.Argument;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.postgresql.PGConnection;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.sql.SQLException;
+import java.util.Collection;
+import java.util.UUID;
+
+/**
+ * Loads a large set of values into a temporary table before the statement that uses it is executed. The table is dropped when the transaction ends.
+ * Text, number, boolean and uuid values are loaded with COPY. Other values are bound as array, so they use the binary encoding of their mapper.
+ */
+class TemporarySet implements ArgumentFactory {
+	private final String name;
+	private final Collection<?> values;
+	private final String table;
+
+	TemporarySet(@NotNull String name, @NotNull Collection<?> values, @NotNull String table) {
+		this.name = name;
+		this.values = values;
+		this.table = table;
+	}
+
+	@NotNull
+	@Override
+	public String getName() {
+		return name;
+	}
+
+	@Nullable
+	@Override
+	public Object getValue() {
+		return values;
+	}
+
+	/**
+	 * Every value of a condition is bound, so the set is referenced by a constant 'true' filter that the planner removes
+	 */
+	@NotNull
+	@Override
+	public Argument create(@NotNull Table<?> table) {
+		return (position, statement, ctx) -> statement.setBoolean(position, true);
+	}
+
+	@Override
+	public boolean requiresPreparation() {
+		return true;
+	}
+
+	@Override
+	public void prepare(@NotNull Handle handle, @NotNull Table<?> table) {
+		var f = table.getColumns().get(name);
+		if(f == null) throw new IllegalStateException("Table has no column with name '" + name + "'");
+
+		var manager = table.getManager();
+		var type = f.getGenericType();
+		var mapper = manager.getMapper(type, f);
+
+		handle.execute("create temporary table \"" + this.table + "\"(value " + SchemaMigration.resolveSerial(mapper.getType(manager, type, f).getName()) + ") on commit drop");
+
+		var data = new StringBuilder(values.size() * 16);
+		for(var value : values) {
+			var formatted = mapper.format(manager, type, f, value);
+
+			if(formatted == null) data.append("\\N");
+			else if(isText(formatted)) escape(data, formatted.toString());
+			else {
+				//The text format of other types doesn't match toString
+				handle.createUpdate("insert into \"" + this.table + "\"(value) select unnest(:values)")
+						.bind("values", ArgumentFactory.createArray(name, values).create(table))
+						.execute();
+				handle.execute("analyze \"" + this.table + "\"");
+				return;
+			}
+
+			data.append('\n');
+		}
+
+		try {
+			handle.getConnection().unwrap(PGConnection.class).getCopyAPI().copyIn("copy \"" + this.table + "\"(value) from stdin", new StringReader(data.toString()));
+		} catch(SQLException | IOException e) {
+			throw new RuntimeException(e);
+		}
+
+		handle.execute("analyze \"" + this.table + "\"");
+	}
+
+	private static boolean isText(Object value) {
+		return value instanceof String || value instanceof Number || value instanceof Boolean || value instanceof Character || value instanceof UUID;
+	}
+
+	private static void escape(StringBuilder builder, String value) {
+		for(int i = 0; i < value.length(); i++) {
+			var c = value.charAt(i);
+
+			switch(c) {
+				case '\\' -> builder.append("\\\\");
+				case '\n' -> builder.append("\\n");
+				case '\r' -> builder.append("\\r");
+				case '\t' -> builder.append("\\t");
+				default -> builder.append(c);
+			}
+		}
+	}
+}
@@ -1,8 +1,5 @@
 package de.mineking.databaseutils;
 
-import com.google.gson.Gson;
-import com.google.gson.GsonBuilder;
-import com.google.gson.ToNumberStrategy;
 import de.mineking.databaseutils.type.DataType;
 import de.mineking.databaseutils.type.PostgresType;
 import de.mineking.javautils.ID;
@@ -11,17 +8,25 @@ import org.jdbi.v3.core.argument.Argument;
 import org.jdbi.v3.core.statement.StatementContext;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
+import org.postgresql.PGConnection;
+import org.postgresql.PGResultSetMetaData;
 
+import java.io.IOException;
+import java.io.StringReader;
 import java.lang.reflect.Field;
 import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
 import java.math.BigDecimal;
 import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Timestamp;
+import java.sql.Types;
 import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
 import java.util.*;
 import java.util.concurrent.atomic.AtomicInteger;
 
@@ -66,7 +71,71 @@ public interface TypeMapper<T, R> {
 		return (R) value;
 	}
 
-	TypeMapper<Integer, Integer> SERIAL = new TypeMapper<>() {
+	@SuppressWarnings({"rawtypes", "unchecked"})
+	TypeMapper<Object, Object> COMPRESSED = new TypeMapper<>() {
+		@Override
+		public boolean accepts(@NotNull DatabaseManager manager, @NotNull Type type, @NotNull Field f) {
+			return f.isAnnotationPresent(Compressed.class);
+		}
+
+		private TypeMapper delegate(DatabaseManager manager, Type type, Field f) {
+			var mapper = manager.getNextMapper(this, type, f);
+
+			var storage = mapper.getType(manager, type, f);
+			if(!storage.equals(PostgresType.BYTE_ARRAY) && !storage.equals(PostgresType.TEXT)) throw new IllegalStateException("@Compressed is only supported for bytea and text columns, but " + f.getName() + " is " + storage.getName());
+
+			return mapper;
+		}
+
+		private boolean isBinary(DatabaseManager manager, Type type, Field f) {
+			return delegate(manager, type, f).getType(manager, type, f).equals(PostgresType.BYTE_ARRAY);
+		}
+
+		@NotNull
+		@Override
+		public DataType getType(@NotNull DatabaseManager manager, @NotNull Type type, @NotNull Field f) {
+			//The column keeps the type of the wrapped mapper, so existing columns don't have to be migrated
+			return delegate(manager, type, f).getType(manager, type, f);
+		}
+
+		@NotNull
+		@Override
+		public Argument createArgument(@NotNull DatabaseManager manager, @NotNull Type type, @NotNull Field f, @Nullable Object value) {
+			return isBinary(manager, type, f) ? BLOB.createArgument(manager, type, f, (byte[]) value) : STRING.createArgument(manager, type, f, (String) value);
+		}
+
+		@NotNull
+		@Override
+		public Type getFormattedType(@NotNull DatabaseManager manager, @NotNull Type type, @NotNull Field f, @Nullable Object value) {
+			return isBinary(manager, type, f) ? byte[].class : String.class;
+		}
+
+		@Nullable
+		@Override
+		public Object format(@NotNull DatabaseManager manager, @NotNull Type type, @NotNull Field f, @Nullable Object value) {
+			var formatted = delegate(manager, type, f).format(manager, type, f, value);
+
+			var config = f.getAnnotation(Compressed.class);
+			var codec = Compression.getCodec(config.codec());
+
+			return formatted instanceof byte[] data ? Compression.encode(codec, config.threshold(), data) : Compression.encodeText(codec, config.threshold(), (String) formatted);
+		}
+
+		@Nullable
+		@Override
+		public Object extract(@NotNull ResultSet set, @NotNull String name, @NotNull Type target) throws SQLException {
+			//Returns byte[] for bytea and String for text columns
+			return set.getObject(name);
+		}
+
+		@Nullable
+		@Override
+		public Object parse(@NotNull DatabaseManager manager, @NotNull Type type, @NotNull Field field, @Nullable Object value) {
+			return delegate(manager, type, field).parse(manager, type, field, value instanceof byte[] data ? Compression.decode(data) : Compression.decodeText((String) value));
+		}
+	};
+
+	TypeMapper<Number, Number> SERIAL = new TypeMapper<>() {
 		@Override
 		public boolean accepts(@NotNull DatabaseManager manager, @NotNull Type type, @NotNull Field f) {
 			return f.getAnnotation(Column.class).autoincrement() && (type.equals(int.class) || type.equals(long.class));
@@ -78,10 +147,41 @@ public interface TypeMapper<T, R> {
 			return type.equals(int.class) ? PostgresType.SERIAL : PostgresType.BIG_SERIAL;
 		}
 
+		@NotNull
+		@Override
+		public Argument createArgument(@NotNull DatabaseManager manager, @NotNull Type type, @NotNull Field f, @Nullable Number value) {
+			return new Argument() {
+				@Override
+				public void apply(int position, PreparedStatement statement, StatementContext ctx) throws SQLException {
+					if(value == null) statement.setNull(position, type.equals(long.class) ? Types.BIGINT : Types.INTEGER);
+					else if(type.equals(long.class)) statement.setLong(position, value.longValue());
+					else statement.setInt(position, value.intValue());
+				}
+
+				@Override
+				public String toString() {
+					return Objects.toString(value);
+				}
+			};
+		}
+
 		@Nullable
 		@Override
-		public Integer extract(@NotNull ResultSet set, @NotNull String name, @NotNull Type target) throws SQLException {
-			return (Integer) set.getObject(name);
+		public Number format(@NotNull DatabaseManager manager, @NotNull Type type, @NotNull Field f, @Nullable Object value) {
+			if(value instanceof Long l && type.equals(int.class)) return Math.toIntExact(l);
+			return (Number) value;
+		}
+
+		@Nullable
+		@Override
+		public Number extract(@NotNull ResultSet set, @NotNull String name, @NotNull Type target) throws SQLException {
+			if(target.equals(long.class)) {
+				var value = set.getLong(name);
+				return set.wasNull() ? null : value;
+			} else {
+				var value = set.getInt(name);
+				return set.wasNull() ? null : value;
+			}
 		}
 	};
 
@@ -97,10 +197,36 @@ public interface TypeMapper<T, R> {
 			return PostgresType.INTEGER;
 		}
 
+		@NotNull
+		@Override
+		public Argument createArgument(@NotNull DatabaseManager manager, @NotNull Type type, @NotNull Field f, @Nullable Integer value) {
+			return new Argument() {
+				@Override
+				public void apply(int position, PreparedStatement statement, StatementContext ctx) throws SQLException {
+					if(value == null) statement.setNull(position, Types.INTEGER);
+					else statement.setInt(position, value);
+				}
+
+				@Override
+				public String toString() {
+					return Objects.toString(value);
+				}
+			};
+		}
+
+		@Nullable
+		@Override
+		public Integer format(@NotNull DatabaseManager manager, @NotNull Type type, @NotNull Field f, @Nullable Object value) {
+			if(value instanceof Long l) return Math.toIntExact(l);
+			if(value instanceof Short || value instanceof Byte) return ((Number) value).intValue();
+			return (Integer) value;
+		}
+
 		@Nullable
 		@Override
 		public Integer extract(@NotNull ResultSet set, @NotNull String name, @NotNull Type target) throws SQLException {
-			return (Integer) set.getObject(name);
+			var value = set.getInt(name);
+			return set.wasNull() ? null : value;
 		}
 	};
 
@@ -116,10 +242,35 @@ public interface TypeMapper<T, R> {
 			return PostgresType.BIG_INT;
 		}
 
+		@NotNull
+		@Override
+		public Argument createArgument(@NotNull DatabaseManager manager, @NotNull Type type, @NotNull Field f, @Nullable Long value) {
+			return new Argument() {
+				@Override
+				public void apply(int position, PreparedStatement statement, StatementContext ctx) throws SQLException {
+					if(value == null) statement.setNull(position, Types.BIGINT);
+					else statement.setLong(position, value);
+				}
+
+				@Override
+				public String toString() {
+					return Objects.toString(value);
+				}
+			};
+		}
+
+		@Nullable
+		@Override
+		public Long format(@NotNull DatabaseManager manager, @NotNull Type type, @NotNull Field f, @Nullable Object value) {
+			if(value instanceof Integer || value instanceof Short || value instanceof Byte) return ((Number) value).longValue();
+			return (Long) value;
+		}
+
 		@Nullable
 		@Override
 		public Long extract(@NotNull ResultSet set, @NotNull String name, @NotNull Type target) throws SQLException {
-			return (Long) set.getObject(name);
+			var value = set.getLong(name);
+			return set.wasNull() ? null : value;
 		}
 	};
 
@@ -135,14 +286,84 @@ public interface TypeMapper<T, R> {
 			return PostgresType.NUMERIC;
 		}
 
+		@NotNull
+		@Override
+		public Argument createArgument(@NotNull DatabaseManager manager, @NotNull Type type, @NotNull Field f, @Nullable Double value) {
+			return new Argument() {
+				@Override
+				public void apply(int position, PreparedStatement statement, StatementContext ctx) throws SQLException {
+					//Bound as numeric like the column, so conditions compare numeric values and can use indexes
+					if(value == null) statement.setNull(position, Types.NUMERIC);
+					else if(Double.isFinite(value)) statement.setBigDecimal(position, BigDecimal.valueOf(value));
+					else statement.setDouble(position, value);
+				}
+
+				@Override
+				public String toString() {
+					return Objects.toString(value);
+				}
+			};
+		}
+
+		@Nullable
+		@Override
+		public Double format(@NotNull DatabaseManager manager, @NotNull Type type, @NotNull Field f, @Nullable Object value) {
+			if(value instanceof Number n && !(value instanceof Double)) return n.doubleValue();
+			return (Double) value;
+		}
+
 		@Nullable
 		@Override
 		public Double extract(@NotNull ResultSet set, @NotNull String name, @NotNull Type target) throws SQLException {
-			Object temp = set.getObject(name);
-			if (temp instanceof Double d) return d;
-			if (temp instanceof BigDecimal d) return d.doubleValue();
+			//Parses the value directly instead of creating a BigDecimal first
+			var value = set.getDouble(name);
+			return set.wasNull() ? null : value;
+		}
+	};
 
-			return null;
+	/**
+	 * Stores doubles as 'float8' instead of 'numeric', which avoids decimal conversion in the database and the driver.
+	 * Not used by default, because existing numeric columns would no longer match their declaration. Use {@link DatabaseManager#addMapper(TypeMapper)} to enable it.
+	 */
+	TypeMapper<Double, Double> DOUBLE_PRECISION = new TypeMapper<>() {
+		@Override
+		public boolean accepts(@NotNull DatabaseManager manager, @NotNull Type type, @NotNull Field f) {
+			return DOUBLE.accepts(manager, type, f);
+		}
+
+		@NotNull
+		@Override
+		public DataType getType(@NotNull DatabaseManager manager, @NotNull Type type, @NotNull Field f) {
+			return PostgresType.DOUBLE_PRECISION;
+		}
+
+		@NotNull
+		@Override
+		public Argument createArgument(@NotNull DatabaseManager manager, @NotNull Type type, @NotNull Field f, @Nullable Double value) {
+			return new Argument() {
+				@Override
+				public void apply(int position, PreparedStatement statement, StatementContext ctx) throws SQLException {
+					if(value == null) statement.setNull(position, Types.DOUBLE);
+					else statement.setDouble(position, value);
+				}
+
+				@Override
+				public String toString() {
+					return Objects.toString(value);
+				}
+			};
+		}
+
+		@Nullable
+		@Override
+		public Double format(@NotNull DatabaseManager manager, @NotNull Type type, @NotNull Field f, @Nullable Object value) {
+			return DOUBLE.format(manager, type, f, value);
+		}
+
+		@Nullable
+		@Override
+		public Double extract(@NotNull ResultSet set, @NotNull String name, @NotNull Type target) throws SQLException {
+			return DOUBLE.extract(set, name, target);
 		}
 	};
 
@@ -192,10 +413,28 @@ public interface TypeMapper<T, R> {
 			return PostgresType.BOOLEAN;
 		}
 
+		@NotNull
+		@Override
+		public Argument createArgument(@NotNull DatabaseManager manager, @NotNull Type type, @NotNull Field f, @Nullable Boolean value) {
+			return new Argument() {
+				@Override
+				public void apply(int position, PreparedStatement statement, StatementContext ctx) throws SQLException {
+					if(value == null) statement.setNull(position, Types.BOOLEAN);
+					else statement.setBoolean(position, value);
+				}
+
+				@Override
+				public String toString() {
+					return Objects.toString(value);
+				}
+			};
+		}
+
 		@Nullable
 		@Override
 		public Boolean extract(@NotNull ResultSet set, @NotNull String name, @NotNull Type target) throws SQLException {
-			return (Boolean) set.getObject(name);
+			var value = set.getBoolean(name);
+			return set.wasNull() ? null : value;
 		}
 	};
 
@@ -254,6 +493,83 @@ public interface TypeMapper<T, R> {
 		}
 	};
 
+	TypeMapper<OffsetDateTime, OffsetDateTime> OFFSET_DATE_TIME = new TypeMapper<>() {
+		@Override
+		public boolean accepts(@NotNull DatabaseManager manager, @NotNull Type type, @NotNull Field f) {
+			return type.equals(OffsetDateTime.class);
+		}
+
+		@NotNull
+		@Override
+		public DataType getType(@NotNull DatabaseManager manager, @NotNull Type type, @NotNull Field f) {
+			return PostgresType.TIMESTAMPTZ;
+		}
+
+		@NotNull
+		@Override
+		public Argument createArgument(@NotNull DatabaseManager manager, @NotNull Type type, @NotNull Field f, @Nullable OffsetDateTime value) {
+			return new Argument() {
+				@Override
+				public void apply(int position, PreparedStatement statement, StatementContext ctx) throws SQLException {
+					statement.setObject(position, value, Types.TIMESTAMP_WITH_TIMEZONE);
+				}
+
+				@Override
+				public String toString() {
+					return Objects.toString(value);
+				}
+			};
+		}
+
+		@Nullable
+		@Override
+		public OffsetDateTime extract(@NotNull ResultSet set, @NotNull String name, @NotNull Type target) throws SQLException {
+			return set.getObject(name, OffsetDateTime.class);
+		}
+	};
+
+	/**
+	 * Stores {@link Instant} as 'timestamptz' instead of 'timestamp', without converting through {@link Timestamp}. Not registered by default because it changes the type of existing columns.
+	 * Use {@link DatabaseManager#addMapper(TypeMapper)} to enable it.
+	 */
+	TypeMapper<OffsetDateTime, Instant> TIMESTAMPTZ = new TypeMapper<>() {
+		@Override
+		public boolean accepts(@NotNull DatabaseManager manager, @NotNull Type type, @NotNull Field f) {
+			return type.equals(Instant.class);
+		}
+
+		@NotNull
+		@Override
+		public DataType getType(@NotNull DatabaseManager manager, @NotNull Type type, @NotNull Field f) {
+			return PostgresType.TIMESTAMPTZ;
+		}
+
+		@NotNull
+		@Override
+		public Argument createArgument(@NotNull DatabaseManager manager, @NotNull Type type, @NotNull Field f, @Nullable OffsetDateTime value) {
+			return OFFSET_DATE_TIME.createArgument(manager, type, f, value);
+		}
+
+		@Nullable
+		@Override
+		public OffsetDateTime format(@NotNull DatabaseManager manager, @NotNull Type type, @NotNull Field f, @Nullable Object value) {
+			if(value instanceof Instant instant) return instant.atOffset(ZoneOffset.UTC);
+			return (OffsetDateTime) value;
+		}
+
+		@Nullable
+		@Override
+		public OffsetDateTime extract(@NotNull ResultSet set, @NotNull String name, @NotNull Type target) throws SQLException {
+			return set.getObject(name, OffsetDateTime.class);
+		}
+
+		@Nullable
+		@Override
+		public Instant parse(@NotNull DatabaseManager manager, @NotNull Type type, @NotNull Field field, @Nullable OffsetDateTime value) {
+			return value == null ? null : value.toInstant();
+		}
+	};
+
 	TypeMapper<java.util.UUID, java.util.UUID> UUID = new TypeMapper<>() {
 		@Override
 		public boolean accepts(@NotNull DatabaseManager manager, @NotNull Type type, @NotNull Field f) {
@@ -277,8 +593,7 @@ public interface TypeMapper<T, R> {
 		@Nullable
 		@Override
 		public UUID extract(@NotNull ResultSet set, @NotNull String name, @NotNull Type target) throws SQLException {
-			var temp = set.getString(name);
-			return temp == null ? null : java.util.UUID.fromString(temp);
+			return set.getObject(name, java.util.UUID.class);
 		}
 	};
 
@@ -289,7 +604,7 @@ public interface TypeMapper<T, R> {
 		@Override
 		public boolean accepts(@NotNull DatabaseManager manager, @NotNull Type type, @NotNull Field f) {
 			if (WARNING) {
-				DatabaseManager.logger.warn("You are using the legacy id TypeMapper. Consider using 'DatabaseManager.ID_TYPE_MAPPER = TypeMapper.ID_MAPPER' to update to the newer version, that supports proper sorting. You can use TypeMapper#convertId() for converting your current table");
+				DatabaseManager.logger.warn("You are using the legacy id TypeMapper. Consider using 'DatabaseManager.ID_TYPE_MAPPER = TypeMapper.ID_MAPPER' to update to the newer version, that supports proper sorting. You can use IdMigration for converting your current table");
 				WARNING = false;
 			}
 
@@ -441,7 +756,126 @@ public interface TypeMapper<T, R> {
 		@Override
 		public Enum<?> parse(@NotNull DatabaseManager manager, @NotNull Type type, @NotNull Field field, @Nullable String value) {
 			if(value == null) return null;
-			return ReflectionUtils.getEnumConstant(type, value).orElse(null);
+			return EnumConstants.byName(ReflectionUtils.getClass(type), value);
+		}
+	};
+
+	TypeMapper<Short, Enum<?>> ORDINAL_ENUM = new TypeMapper<>() {
+		@Override
+		public boolean accepts(@NotNull DatabaseManager manager, @NotNull Type type, @NotNull Field f) {
+			return f.isAnnotationPresent(Ordinal.class) && ReflectionUtils.getClass(type).isEnum();
+		}
+
+		@NotNull
+		@Override
+		public DataType getType(@NotNull DatabaseManager manager, @NotNull Type type, @NotNull Field f) {
+			return PostgresType.SMALL_INT;
+		}
+
+		@NotNull
+		@Override
+		public Argument createArgument(@NotNull DatabaseManager manager, @NotNull Type type, @NotNull Field f, @Nullable Short value) {
+			return new Argument() {
+				@Override
+				public void apply(int position, PreparedStatement statement, StatementContext ctx) throws SQLException {
+					if(value == null) statement.setNull(position, Types.SMALLINT);
+					else statement.setShort(position, value);
+				}
+
+				@Override
+				public String toString() {
+					return Objects.toString(value);
+				}
+			};
+		}
+
+		@Nullable
+		@Override
+		public Short format(@NotNull DatabaseManager manager, @NotNull Type type, @NotNull Field f, @Nullable Object value) {
+			if(value instanceof Enum<?> e) return (short) e.ordinal();
+			if(value instanceof String str) {
+				var constant = EnumConstants.byName(ReflectionUtils.getClass(type), str);
+				return constant == null ? null : (short) constant.ordinal();
+			}
+			if(value instanceof Number n) return n.shortValue();
+			return null;
+		}
+
+		@Nullable
+		@Override
+		public Short extract(@NotNull ResultSet set, @NotNull String name, @NotNull Type target) throws SQLException {
+			var value = set.getShort(name);
+			return set.wasNull() ? null : value;
+		}
+
+		@Nullable
+		@Override
+		public Enum<?> parse(@NotNull DatabaseManager manager, @NotNull Type type, @NotNull Field field, @Nullable Short value) {
+			if(value == null) return null;
+			return EnumConstants.byOrdinal(ReflectionUtils.getClass(type), value);
+		}
+	};
+
+	/**
+	 * Stores int[], long[], double[] and List&lt;Long&gt; as arrays of the element type. Values are bound with the primitive overload of {@link PGConnection#createArrayOf(String, Object)}, which doesn't box the elements.
+	 * The driver only returns boxed arrays, so values are read as the raw bytes the driver received and decoded into a primitive array. Server-prepared statements receive the binary representation of the array, other statements the text representation.
+	 * Connections with 'prepareThreshold=-1' always receive the binary representation.
+	 */
+	TypeMapper<Object, Object> PRIMITIVE_ARRAY = new TypeMapper<>() {
+		@Override
+		public boolean accepts(@NotNull DatabaseManager manager, @NotNull Type type, @NotNull Field f) {
+			return PrimitiveArrays.getComponent(type) != null;
+		}
+
+		@NotNull
+		@Override
+		public DataType getType(@NotNull DatabaseManager manager, @NotNull Type type, @NotNull Field f) {
+			return DataType.ofName(manager.getType(PrimitiveArrays.getComponent(type), f).getName() + "[]");
+		}
+
+		@NotNull
+		@Override
+		public Argument createArgument(@NotNull DatabaseManager manager, @NotNull Type type, @NotNull Field f, @Nullable Object value) {
+			return new Argument() {
+				@Override
+				public void apply(int position, PreparedStatement statement, StatementContext ctx) throws SQLException {
+					if(value == null) {
+						statement.setArray(position, null);
+						return;
+					}
+
+					//The driver encodes primitive arrays directly, without boxing the elements
+					var type = manager.getType(PrimitiveArrays.getComponent(value.getClass()), f);
+					statement.setArray(position, statement.getConnection().unwrap(PGConnection.class).createArrayOf(type.getName(), value));
+				}
+
+				@Override
+				public String toString() {
+					return value instanceof long[] l ? Arrays.toString(l) : value instanceof int[] i ? Arrays.toString(i) : value instanceof double[] d ? Arrays.toString(d) : Objects.toString(value);
+				}
+			};
+		}
+
+		@Nullable
+		@Override
+		public Object format(@NotNull DatabaseManager manager, @NotNull Type type, @NotNull Field f, @Nullable Object value) {
+			return value == null ? null : PrimitiveArrays.toArray(PrimitiveArrays.getComponent(type), value);
+		}
+
+		@Nullable
+		@Override
+		public Object extract(@NotNull ResultSet set, @NotNull String name, @NotNull Type target) throws SQLException {
+			var value = set.getBytes(name);
+			if(value == null) return null;
+
+			var component = PrimitiveArrays.getComponent(target);
+			return set.getMetaData().unwrap(PGResultSetMetaData.class).getFormat(set.findColumn(name)) == 1 ? PrimitiveArrays.decode(component, value) : PrimitiveArrays.parse(component, value);
+		}
+
+		@Nullable
+		@Override
+		public Object parse(@NotNull DatabaseManager manager, @NotNull Type type, @NotNull Field field, @Nullable Object value) {
+			return value instanceof long[] l && !type.equals(long[].class) ? PrimitiveArrays.toList(l) : value;
 		}
 	};
 
@@ -541,16 +975,6 @@ public interface TypeMapper<T, R> {
 	};
 
 	TypeMapper<String, ?> JSON = new TypeMapper<>() {
-		public static final ToNumberStrategy numberStrategy = in -> {
-			var str = in.nextString();
-			return str.contains(".") ? Double.parseDouble(str) : Integer.parseInt(str);
-		};
-
-		private final static Gson gson = new GsonBuilder()
-				.setNumberToNumberStrategy(numberStrategy)
-				.setObjectToNumberStrategy(numberStrategy)
-				.create();
-
 		@Override
 		public boolean accepts(@NotNull DatabaseManager manager, @NotNull Type type, @NotNull Field f) {
 			return f.isAnnotationPresent(Json.class);
@@ -575,7 +999,7 @@ public interface TypeMapper<T, R> {
 		@NotNull
 		@Override
 		public String format(@NotNull DatabaseManager manager, @NotNull Type type, @NotNull Field f, @Nullable Object value) {
-			return gson.toJson(value);
+			return JsonSupport.gson.toJson(value);
 		}
 
 		@NotNull
@@ -593,12 +1017,65 @@ public interface TypeMapper<T, R> {
 		@Nullable
 		@Override
 		public Object parse(@NotNull DatabaseManager manager, @NotNull Type type, @NotNull Field field, @Nullable String value) {
-			return value == null ? null : gson.fromJson(value, type);
+			return value == null ? null : JsonSupport.read(new StringReader(value), type);
 		}
 	};
 
+	/**
+	 * Stores fields annotated with {@code @Json(binary = true)} as 'jsonb'. Values are decoded directly from the character stream of the driver using cached type adapters.
+	 * This allows filtering with {@link Where#jsonContains(String, Object)}, {@link Where#jsonHasKey(String, String)} and {@link Where#jsonPath(String, String)}.
+	 */
+	TypeMapper<Object, Object> JSONB = new TypeMapper<>() {
+		@Override
+		public boolean accepts(@NotNull DatabaseManager manager, @NotNull Type type, @NotNull Field f) {
+			var json = f.getAnnotation(Json.class);
+			return json != null && json.binary();
+		}
 
+		@NotNull
+		@Override
+		public DataType getType(@NotNull DatabaseManager manager, @NotNull Type type, @NotNull Field f) {
+			return PostgresType.JSONB;
+		}
 
+		@NotNull
+		@Override
+		public Argument createArgument(@NotNull DatabaseManager manager, @NotNull Type type, @NotNull Field f, @Nullable Object value) {
+			return new Argument() {
+				@Override
+				public void apply(int position, PreparedStatement statement, StatementContext ctx) throws SQLException {
+					statement.setObject(position, value, Types.OTHER);
+				}
+
+				@Override
+				public String toString() {
+					return Objects.toString(value);
+				}
+			};
+		}
+
+		@NotNull
+		@Override
+		public Type getFormattedType(@NotNull DatabaseManager manager, @NotNull Type type, @NotNull Field f, @Nullable Object value) {
+			return String.class;
+		}
+
+		@NotNull
+		@Override
+		public Object format(@NotNull DatabaseManager manager, @NotNull Type type, @NotNull Field f, @Nullable Object value) {
+			return JsonSupport.gson.toJson(value);
+		}
+
+		@Nullable
+		@Override
+		public Object extract(@NotNull ResultSet set, @NotNull String name, @NotNull Type target) throws SQLException {
+			try(var reader = set.getCharacterStream(name)) {
+				return reader == null ? null : JsonSupport.read(reader, target);
+			} catch(IOException e) {
+				throw new SQLException(e);
+			}
+		}
+	};
 
 	TypeMapper<?, ID> ID_CONVERTER = new TypeMapper<Object, ID>() {
 		@Override
@@ -640,22 +1117,24 @@ public interface TypeMapper<T, R> {
 	};
 
 
+	/**
+	 * Converts the ids of a column in place, one row at a time. The column type has to be changed to 'bigint' manually afterward.
+	 *
+	 * @deprecated use {@link IdMigration}, which converts the table in batches and replaces the column type
+	 */
+	@Deprecated
 	static void convert(@NotNull Table<?> table, @NotNull String column) {
 		if (DatabaseManager.ID_TYPE_MAPPER != ID_CONVERTER) throw new IllegalStateException("You have to set DatabaseManager.ID_TYPE_MAPPER to TypeMapper.ID_CONVERTER");
 		table.selectAll().forEach(obj -> {
-			try {
-				ID id = (ID) table.getColumns().get(column).get(obj);
-
-				table.getManager().getDriver().useHandle(handle -> handle.createUpdate("update <name> set <column> = :new where <column> = :old")
-						.define("name", table.getName())
-						.define("column", column)
-						.bind("old", id.asString())
-						.bind("new", id.asNumber())
-						.execute()
-				);
-			} catch (IllegalAccessException e) {
-				throw new RuntimeException(e);
-			}
+			ID id = (ID) ((TableImpl<?>) table.getImplementation()).getValue(obj, table.getColumns().get(column));
+
+			table.getManager().getDriver().useHandle(handle -> handle.createUpdate("update <name> set <column> = :new where <column> = :old")
+					.define("name", table.getName())
+					.define("column", column)
+					.bind("old", id.asString())
+					.bind("new", id.asNumber())
+					.execute()
+			);
 		});
 		DatabaseManager.logger.info("Table {} converted. Please update the column type to 'bigint' now", table.getName());
 	}
@@ -0,0 +1,14 @@
+package de.mineking.databaseutils;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks an integer {@link Column} as version of the row. Updates and deletes of objects only succeed if the version still matches the version the object was read with, and increment it.
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.FIELD)
+public @interface Version {
+}
@@ -2,27 +2,49 @@ package de.mineking.databaseutils;
 
 import de.mineking.javautils.ID;
 import de.mineking.javautils.Pair;
-import de.mineking.javautils.reflection.ReflectionUtils;
+import org.jdbi.v3.core.Handle;
 import org.jdbi.v3.core.argument.Argument;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 import java.util.*;
+import java.util.function.Function;
 import java.util.stream.Collector;
 import java.util.stream.Collectors;
 
 public interface Where {
+	/**
+	 * A placeholder for a value that is bound later through {@link PreparedQuery#bind(String, Object)}
+	 */
+	record Parameter(@NotNull String name) {}
+
+	/**
+	 * Parameters are supported by {@link #equals(String, Object)}, {@link #notEqual(String, Object)}, {@link #like(String, Object)}, {@link #likeIgnoreCase(String, Object)},
+	 * {@link #greater(String, Object)}, {@link #lower(String, Object)}, {@link #greaterOrEqual(String, Object)}, {@link #lowerOrEqual(String, Object)}, {@link #between(String, Object, Object)},
+	 * {@link #fieldContainsValue(String, Object)} and {@link #jsonContains(String, Object)}. Other conditions cannot take parameters.
+	 *
+	 * @return a placeholder that can be used instead of a value in conditions passed to {@link Table#prepare(Where, Order)}
+	 */
+	@NotNull
+	static Parameter parameter(@NotNull String name) {
+		return new Parameter(name);
+	}
+
 	@NotNull
 	static <T> Where identify(@NotNull Table<T> table, @NotNull T object) {
+		return identify(table, object, true);
+	}
+
+	@NotNull
+	static <T> Where identify(@NotNull Table<T> table, @NotNull T object, boolean version) {
 		if(table.getKeys().isEmpty()) throw new IllegalArgumentException("Cannot identify object without keys");
-		return allOf(table.getKeys().entrySet().stream()
-				.map(e -> {
-					try {
-						return equals(e.getKey(), e.getValue().get(object));
-					} catch(IllegalAccessException ex) {
-						throw new RuntimeException(ex);
-					}
-				})
+
+		var column = table.getVersionColumn();
+		var fields = new LinkedHashMap<>(table.getKeys());
+		if(version && column != null) fields.put(column, table.getColumns().get(column));
+
+		return allOf(fields.entrySet().stream()
+				.map(e -> equals(e.getKey(), ((TableImpl<?>) table.getImplementation()).getValue(object, e.getValue())))
 				.toList()
 		);
 	}
@@ -32,19 +54,13 @@ public interface Where {
 		if(table.getUnique().isEmpty()) return empty();
 		var temp = anyOf(table.getUnique().entrySet().stream()
 				.filter(e -> !e.getValue().getAnnotation(Column.class).key())
-				.map(e -> {
-					try {
-						return equals(e.getKey(), e.getValue().get(object));
-					} catch(IllegalAccessException ex) {
-						throw new RuntimeException(ex);
-					}
-				})
+				.map(e -> equals(e.getKey(), ((TableImpl<?>) table.getImplementation()).getValue(object, e.getValue())))
 				.toList()
 		);
 
 		return isInsert
-				? temp.or(identify(table, object))
-				: temp.and(not(identify(table, object)));
+				? temp.or(identify(table, object, false))
+				: temp.and(not(identify(table, object, false)));
 	}
 
 	@NotNull
@@ -160,42 +176,144 @@ public interface Where {
 		return WhereImpl.create(name, value, "<=");
 	}
 
+	/**
+	 * Matches rows where the column has one of the provided values. Depending on the number of values, they are bound as array, joined through unnest or loaded into a temporary table.
+	 *
+	 * @see DatabaseManager#UNNEST_THRESHOLD
+	 * @see DatabaseManager#TEMPORARY_TABLE_THRESHOLD
+	 */
 	@NotNull
 	static Where valueContainsField(@NotNull String name, @NotNull Collection<?> value) {
 		if(value.isEmpty()) return FALSE();
 
 		var id = ID.generate().asString();
-		return new WhereImpl("\"" + name + "\" = any(:" + id + ")", Map.of(id, ArgumentFactory.create(name, value, table -> {
-			var f = table.getColumns().get(name);
-			if(f == null) throw new IllegalStateException("Table has no column with name '" + name + "'");
 
-			var type = ReflectionHelpers.getClazz(f.getGenericType()).arrayType();
-			var mapper = table.getManager().getMapper(type, f);
+		if(value.size() >= DatabaseManager.TEMPORARY_TABLE_THRESHOLD) {
+			var table = "databaseutils_set_" + id;
+			return new WhereImpl("\"" + name + "\" in (select value from \"" + table + "\" where :" + id + ")", Map.of(id, new TemporarySet(name, value, table)));
+		}
+
+		var factory = ArgumentFactory.createArray(name, value);
 
-			return mapper.createArgument(table.getManager(), type, f, mapper.format(table.getManager(), type, f, value));
-		})));
+		return new WhereImpl(value.size() >= DatabaseManager.UNNEST_THRESHOLD
+				? "\"" + name + "\" in (select unnest(:" + id + "))"
+				: "\"" + name + "\" = any(:" + id + ")",
+				Map.of(id, factory)
+		);
 	}
 
 	@NotNull
 	static Where fieldContainsValue(@NotNull String name, @Nullable Object value) {
 		var id = ID.generate().asString();
-		return new WhereImpl(":" + id + " = any(\"" + name + "\")", Map.of(id, ArgumentFactory.create(name, value, table -> {
-			var f = table.getColumns().get(name);
-			if(f == null) throw new IllegalStateException("Table has no column with name '" + name + "'");
+		return new WhereImpl(":" + id + " = any(\"" + name + "\")", Map.of(id, ArgumentFactory.createComponent(name, value)));
+	}
+
+	/**
+	 * Matches rows where the text of the column matches the search query. The query supports the web search syntax, like <code>"exact phrase" -excluded or other</code>.
+	 *
+	 * @param language the text search configuration, like 'english'. Has to be the same as in {@link Column#textSearch()} for the index to be used
+	 */
+	@NotNull
+	static Where matches(@NotNull String name, @NotNull String language, @NotNull String query) {
+		var id = ID.generate().asString();
+		return new WhereImpl(textSearchVector(name, language) + " @@ websearch_to_tsquery('" + language + "', :" + id + ")", Map.of(id, text(name, query)));
+	}
 
-			var type = ReflectionUtils.getActualArrayComponent(f.getGenericType());
-			var mapper = table.getManager().getMapper(type, f);
+	/**
+	 * Matches rows where the trigram similarity of the column and the value exceeds 'pg_trgm.similarity_threshold' (0.3 by default)
+	 */
+	@NotNull
+	static Where similar(@NotNull String name, @NotNull String value) {
+		var id = ID.generate().asString();
+		return new WhereImpl("\"" + name + "\" % :" + id, Map.of(id, text(name, value)));
+	}
 
-			Object v;
+	@NotNull
+	static String textSearchVector(@NotNull String name, @NotNull String language) {
+		if(!language.matches("[A-Za-z_]+")) throw new IllegalArgumentException("Invalid text search configuration '" + language + "'");
+		return "to_tsvector('" + language + "', \"" + name + "\")";
+	}
 
-			try {
-				v = mapper.format(table.getManager(), type, f, value);
-			} catch(IllegalArgumentException | ClassCastException ex) {
-				v = value;
-			}
+	/**
+	 * Matches rows whose 'jsonb' column contains the provided value, serialized as json. This can use a GIN index on the column.
+	 */
+	@NotNull
+	static Where jsonContains(@NotNull String name, @Nullable Object value) {
+		var id = ID.generate().asString();
+		return new WhereImpl("\"" + name + "\" @> cast(:" + id + " as jsonb)", Map.of(id, text(name, value, JsonSupport.gson::toJson)));
+	}
+
+	@NotNull
+	static Where jsonHasKey(@NotNull String name, @NotNull String key) {
+		var id = ID.generate().asString();
+		return new WhereImpl("\"" + name + "\" ?? :" + id, Map.of(id, text(name, key)));
+	}
 
-			return mapper.createArgument(table.getManager(), type, f, v);
-		})));
+	/**
+	 * Matches rows where the json path predicate (like <code>$.settings.enabled == true</code>) is true for the 'jsonb' column.
+	 */
+	@NotNull
+	static Where jsonPath(@NotNull String name, @NotNull String path) {
+		var id = ID.generate().asString();
+		return new WhereImpl("\"" + name + "\" @@ cast(:" + id + " as jsonpath)", Map.of(id, text(name, path)));
+	}
+
+	@NotNull
+	static Where jsonPathEquals(@NotNull String name, @NotNull String path, @Nullable Object value) {
+		return jsonPath(name, path + " == " + JsonSupport.gson.toJson(value));
+	}
+
+	@NotNull
+	private static ArgumentFactory text(@NotNull String name, @Nullable Object value, @NotNull Function<Object, String> converter) {
+		return ArgumentFactory.compiled(name, value, table -> v -> {
+			var text = converter.apply(v);
+			return (position, statement, ctx) -> statement.setString(position, text);
+		});
+	}
+
+	@NotNull
+	private static ArgumentFactory text(@NotNull String name, @NotNull Object value) {
+		return text(name, value, Object::toString);
+	}
+
+	/**
+	 * Matches rows where the array column contains all provided values. Unlike {@link #fieldContainsValue(String, Object)}, this can use a GIN index on the column (see {@link Index.Method#GIN}).
+	 */
+	@NotNull
+	static Where arrayContains(@NotNull String name, @NotNull Collection<?> values) {
+		return WhereImpl.create(name, values, "@>");
+	}
+
+	@NotNull
+	static Where arrayContains(@NotNull String name, @NotNull Object... values) {
+		return arrayContains(name, Arrays.asList(values));
+	}
+
+	/**
+	 * Matches rows where the array column contains at least one of the provided values. This can use a GIN index on the column.
+	 */
+	@NotNull
+	static Where arrayOverlaps(@NotNull String name, @NotNull Collection<?> values) {
+		if(values.isEmpty()) return FALSE();
+		return WhereImpl.create(name, values, "&&");
+	}
+
+	@NotNull
+	static Where arrayOverlaps(@NotNull String name, @NotNull Object... values) {
+		return arrayOverlaps(name, Arrays.asList(values));
+	}
+
+	/**
+	 * Matches rows where every element of the array column is one of the provided values. This can use a GIN index on the column.
+	 */
+	@NotNull
+	static Where arrayContainedBy(@NotNull String name, @NotNull Collection<?> values) {
+		return WhereImpl.create(name, values, "<@");
+	}
+
+	@NotNull
+	static Where arrayContainedBy(@NotNull String name, @NotNull Object... values) {
+		return arrayContainedBy(name, Arrays.asList(values));
 	}
 
 	@NotNull
@@ -246,6 +364,17 @@ public interface Where {
 	@NotNull
 	Map<String, ArgumentFactory> values();
 
+	default boolean requiresPreparation() {
+		return values().values().stream().anyMatch(ArgumentFactory::requiresPreparation);
+	}
+
+	/**
+	 * Prepares the arguments of this condition. Has to be called in the transaction the statement is executed in, if {@link #requiresPreparation()} is true.
+	 */
+	default void prepare(@NotNull Handle handle, @NotNull Table<?> table) {
+		values().values().forEach(v -> v.prepare(handle, table));
+	}
+
 	default Map<String, Argument> formatValues(@NotNull Table<?> table) {
 		return values().entrySet().stream().collect(Collectors.toMap(Map.Entry::getKey, e -> e.getValue().create(table)));
 	}
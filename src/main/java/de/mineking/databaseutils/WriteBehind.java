@@ -0,0 +1,140 @@
+package de.mineking.databaseutils;
+
+import de.mineking.databaseutils.exception.ConflictException;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+import java.util.stream.Collectors;
+
+class WriteBehind<T> {
+	private final TableImpl<T> table;
+	private final int batchSize;
+	private final int capacity;
+	private final BiConsumer<T, Exception> failure;
+
+	private final Map<String, T> pending = new LinkedHashMap<>();
+	private final Object flushLock = new Object();
+
+	private final ScheduledExecutorService executor;
+	private final ScheduledFuture<?> task;
+	private volatile boolean closed = false;
+
+	WriteBehind(TableImpl<T> table, Duration maxStaleness, int batchSize, int capacity, BiConsumer<T, Exception> failure) {
+		this.table = table;
+		this.batchSize = batchSize;
+		this.capacity = capacity;
+		this.failure = failure != null ? failure : (object, e) -> DatabaseManager.logger.error("Failed to write buffered update of " + object + " to table '" + table.getName() + "'", e);
+
+		this.executor = table.getManager().getWriteBehindExecutor();
+		this.task = executor.scheduleWithFixedDelay(this::flush, maxStaleness.toMillis(), maxStaleness.toMillis(), TimeUnit.MILLISECONDS);
+	}
+
+	void add(T object) {
+		//Nothing flushes the buffer after it was closed
+		if(closed) {
+			write(object);
+			return;
+		}
+
+		var key = table.getKey(object);
+
+		while(true) {
+			var added = false;
+			var full = false;
+
+			synchronized(pending) {
+				if(pending.containsKey(key) || pending.size() < capacity) {
+					pending.put(key, object);
+
+					added = true;
+					full = pending.size() == batchSize;
+				}
+			}
+
+			if(full) schedule();
+			if(added) return;
+
+			//The buffer is full, so the caller has to help writing it
+			flush();
+		}
+	}
+
+	private void schedule() {
+		try {
+			executor.execute(this::flush);
+		} catch(RejectedExecutionException e) {
+			flush();
+		}
+	}
+
+	void flush() {
+		synchronized(flushLock) {
+			List<T> objects;
+
+			synchronized(pending) {
+				if(pending.isEmpty()) return;
+
+				objects = new ArrayList<>(pending.values());
+				pending.clear();
+			}
+
+			for(int i = 0; i < objects.size(); i += batchSize) {
+				var batch = objects.subList(i, Math.min(i + batchSize, objects.size()));
+
+				try {
+					written(batch, table.updateBatch(batch));
+				} catch(Exception e) {
+					DatabaseManager.logger.error("Failed to write batch of " + batch.size() + " buffered updates to table '" + table.getName() + "', retrying rows individually", e);
+					batch.forEach(this::write);
+				}
+			}
+		}
+	}
+
+	private void write(T object) {
+		try {
+			written(List.of(object), table.updateBatch(List.of(object)));
+		} catch(Exception e) {
+			fail(object, e);
+		}
+	}
+
+	/**
+	 * Invalidates caches after the batch was written, so readers cannot cache the rows before they were updated
+	 */
+	private void written(List<T> objects, int[] counts) {
+		var written = new ArrayList<T>(objects.size());
+
+		for(int i = 0; i < objects.size(); i++) {
+			//The row was deleted after it was buffered
+			if(counts[i] == 0) fail(objects.get(i), new ConflictException());
+			else written.add(objects.get(i));
+		}
+
+		if(written.isEmpty()) return;
+		table.written(table.getManager().getInvalidationBus() == null ? null : written.stream().map(table::getKey).collect(Collectors.toSet()));
+	}
+
+	private void fail(T object, Exception e) {
+		try {
+			failure.accept(object, e);
+		} catch(Exception ex) {
+			DatabaseManager.logger.error("Failed to handle failed buffered update of table '" + table.getName() + "'", ex);
+		}
+	}
+
+	void close() {
+		closed = true;
+		task.cancel(false);
+
+		flush();
+	}
+}
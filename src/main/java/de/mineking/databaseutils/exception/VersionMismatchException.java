@@ -0,0 +1,4 @@
+package de.mineking.databaseutils.exception;
+
+public class VersionMismatchException extends SQLException {
+}
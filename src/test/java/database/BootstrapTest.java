@@ -0,0 +1,81 @@
+package database;
+
+import de.mineking.databaseutils.*;
+import de.mineking.javautils.ID;
+import lombok.AllArgsConstructor;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+import org.jdbi.v3.core.statement.SqlLogger;
+import org.jdbi.v3.core.statement.StatementContext;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class BootstrapTest {
+	private final DatabaseManager manager;
+
+	@ToString
+	@NoArgsConstructor
+	@AllArgsConstructor
+	private static class TestClass {
+		@Column(key = true)
+		public ID id;
+
+		@Index
+		@Column
+		public String value;
+	}
+
+	public BootstrapTest() {
+		manager = new DatabaseManager("jdbc:postgresql://localhost:5433/postgres", "postgres", "postgres");
+		manager.getDriver().useHandle(handle -> {
+			for(int i = 0; i < 4; i++) handle.execute("drop table if exists bootstrapTest" + i);
+			handle.execute("create table bootstrapTest0(id text primary key, value text)");
+		});
+
+		manager.getDriver().setSqlLogger(new SqlLogger() {
+			@Override
+			public void logBeforeExecution(StatementContext context) {
+				System.out.println(context.getParsedSql().getSql());
+			}
+		});
+	}
+
+	private int getTableCount() {
+		return manager.getDriver().withHandle(handle -> handle.createQuery("select count(*) from pg_tables where tablename like 'bootstraptest%'").mapTo(int.class).one());
+	}
+
+	private int getIndexCount() {
+		return manager.getDriver().withHandle(handle -> handle.createQuery("select count(*) from pg_indexes where tablename like 'bootstraptest%' and indexname like '%_value_idx'").mapTo(int.class).one());
+	}
+
+	@Test
+	public void transaction() {
+		var bootstrap = manager.bootstrap();
+		var tables = new Table<?>[4];
+		for(int i = 0; i < 4; i++) tables[i] = bootstrap.add(manager.getTable(TestClass.class, TestClass::new).name("bootstrapTest" + i));
+
+		bootstrap.create();
+
+		assertEquals(4, getTableCount());
+		assertEquals(4, getIndexCount());
+		assertEquals(0, tables[3].selectAll().size());
+
+		//Existing indexes are detected, so nothing is created again
+		var again = manager.bootstrap();
+		for(int i = 0; i < 4; i++) again.add(manager.getTable(TestClass.class, TestClass::new).name("bootstrapTest" + i));
+		again.create();
+
+		assertEquals(4, getIndexCount());
+	}
+
+	@Test
+	public void parallel() {
+		var bootstrap = manager.bootstrap();
+		for(int i = 0; i < 4; i++) bootstrap.add(manager.getTable(TestClass.class, TestClass::new).name("bootstrapTest" + i));
+
+		bootstrap.create(4);
+
+		assertEquals(4, getTableCount());
+	}
+}
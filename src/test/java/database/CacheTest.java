@@ -0,0 +1,84 @@
+package database;
+
+import de.mineking.databaseutils.*;
+import de.mineking.javautils.ID;
+import lombok.AllArgsConstructor;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+import org.jdbi.v3.core.statement.SqlLogger;
+import org.jdbi.v3.core.statement.StatementContext;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CacheTest {
+	private final DatabaseManager manager;
+	private final Table<TestClass> table;
+	private final AtomicInteger queries = new AtomicInteger();
+
+	@ToString
+	@NoArgsConstructor
+	@AllArgsConstructor
+	private class TestClass implements DataClass<TestClass> {
+		@Column(key = true)
+		public ID id;
+
+		@Column
+		public String test;
+
+		@NotNull
+		@Override
+		public Table<TestClass> getTable() {
+			return table;
+		}
+	}
+
+	public CacheTest() {
+		manager = new DatabaseManager("jdbc:postgresql://localhost:5433/postgres", "postgres", "postgres");
+		table = manager.getTable(TestClass.class, TestClass::new).name("cache").cache(Duration.ofMinutes(1), 100).create();
+
+		manager.getDriver().setSqlLogger(new SqlLogger() {
+			@Override
+			public void logBeforeExecution(StatementContext context) {
+				queries.incrementAndGet();
+				System.out.println(context.getParsedSql().getSql());
+				System.out.println(context.getBinding());
+			}
+		});
+	}
+
+	@BeforeEach
+	public void reset() {
+		table.deleteAll();
+	}
+
+	@Test
+	public void cache() {
+		new TestClass(null, "a").insert();
+		new TestClass(null, "b").insert();
+
+		var first = table.selectMany(Where.equals("test", "a"), Order.ascendingBy("id"));
+		assertEquals(1, first.size());
+
+		var count = queries.get();
+		var second = table.selectMany(Where.equals("test", "a"), Order.ascendingBy("id"));
+		assertEquals(count, queries.get()); //Loaded from the cache
+
+		//Every caller gets its own objects
+		assertNotSame(first.get(0), second.get(0));
+		first.get(0).test = "changed";
+		assertEquals("a", table.selectMany(Where.equals("test", "a"), Order.ascendingBy("id")).get(0).test);
+
+		assertEquals("b", table.selectMany(Where.equals("test", "b"), Order.ascendingBy("id")).get(0).test);
+
+		assertThrows(UnsupportedOperationException.class, () -> first.add(new TestClass()));
+
+		new TestClass(null, "a").insert();
+		assertEquals(2, table.selectMany(Where.equals("test", "a"), Order.ascendingBy("id")).size());
+	}
+}
@@ -0,0 +1,128 @@
+package database;
+
+import de.mineking.databaseutils.*;
+import de.mineking.javautils.ID;
+import lombok.AllArgsConstructor;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+import org.jdbi.v3.core.statement.SqlLogger;
+import org.jdbi.v3.core.statement.StatementContext;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CompressionTest {
+	private final DatabaseManager manager;
+	private final Table<TestClass> table;
+
+	@ToString
+	@NoArgsConstructor
+	@AllArgsConstructor
+	private class TestClass implements DataClass<TestClass> {
+		@Column(key = true)
+		public ID id;
+
+		@Compressed
+		@Column
+		public byte[] data;
+
+		@Compressed(threshold = 64)
+		@Json
+		@Column
+		public Map<String, Object> json;
+
+		@NotNull
+		@Override
+		public Table<TestClass> getTable() {
+			return table;
+		}
+	}
+
+	@NoArgsConstructor
+	@AllArgsConstructor
+	public static class PlainClass {
+		@Column(key = true)
+		public int id;
+
+		@Json
+		@Column
+		public Map<String, Object> json;
+	}
+
+	@NoArgsConstructor
+	@AllArgsConstructor
+	public static class CompressedClass {
+		@Column(key = true)
+		public int id;
+
+		@Compressed(threshold = 64)
+		@Json
+		@Column
+		public Map<String, Object> json;
+	}
+
+	public CompressionTest() {
+		manager = new DatabaseManager("jdbc:postgresql://localhost:5433/postgres", "postgres", "postgres");
+		table = manager.getTable(TestClass.class, TestClass::new).name("compressionTest").create();
+
+		manager.getDriver().setSqlLogger(new SqlLogger() {
+			@Override
+			public void logBeforeExecution(StatementContext context) {
+				System.out.println(context.getParsedSql().getSql());
+			}
+		});
+
+		table.deleteAll();
+	}
+
+	@Test
+	public void roundTrip() {
+		var data = "payload ".repeat(1000).getBytes();
+		var json = Map.<String, Object>of("values", List.of("a".repeat(100), "b".repeat(100)));
+
+		var object = table.insert(new TestClass(null, data, json));
+		var result = table.selectOne(Where.identify(table, object)).orElseThrow();
+
+		assertArrayEquals(data, result.data);
+		assertEquals(json, result.json);
+
+		var stored = manager.getDriver().withHandle(handle -> handle.createQuery("select length(data) from compressionTest").mapTo(int.class).one());
+		assertTrue(stored < data.length);
+	}
+
+	@Test
+	public void uncompressed() {
+		manager.getDriver().useHandle(handle -> handle.createUpdate("insert into compressionTest(id, data, json) values(:id, :data, :json)")
+				.bind("id", ID.generate().asString())
+				.bind("data", new byte[] { 1, 2, 3 })
+				.bind("json", "{\"a\":\"b\"}")
+				.execute()
+		);
+
+		var result = table.selectAll().get(0);
+		assertArrayEquals(new byte[] { 1, 2, 3 }, result.data);
+		assertEquals(Map.of("a", "b"), result.json);
+	}
+
+	@Test
+	public void existingText() {
+		//The table is created without compression first, like a column that existed before @Compressed was added
+		var plain = manager.getTable(PlainClass.class, PlainClass::new).name("compressionTextTest").create();
+		plain.deleteAll();
+		plain.insert(new PlainClass(1, Map.of("a", "b")));
+
+		var compressed = manager.getTable(CompressedClass.class, CompressedClass::new).name("compressionTextTest").create();
+		var json = Map.<String, Object>of("values", "c".repeat(1000));
+		compressed.insert(new CompressedClass(2, json));
+
+		assertEquals(Map.of("a", "b"), compressed.selectOne(Where.equals("id", 1)).orElseThrow().json);
+		assertEquals(json, compressed.selectOne(Where.equals("id", 2)).orElseThrow().json);
+
+		assertEquals("text", manager.getDriver().withHandle(handle -> handle.createQuery("select data_type from information_schema.columns where table_name = 'compressiontexttest' and column_name = 'json'").mapTo(String.class).one()));
+		assertTrue(manager.getDriver().withHandle(handle -> handle.createQuery("select length(json) from compressionTextTest where id = 2").mapTo(int.class).one()) < 1000);
+	}
+}
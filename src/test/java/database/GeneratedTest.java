@@ -0,0 +1,112 @@
+package database;
+
+import de.mineking.databaseutils.*;
+import de.mineking.databaseutils.exception.ConflictException;
+import de.mineking.databaseutils.exception.VersionMismatchException;
+import lombok.AllArgsConstructor;
+import lombok.NoArgsConstructor;
+import org.jdbi.v3.core.statement.SqlLogger;
+import org.jdbi.v3.core.statement.StatementContext;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class GeneratedTest {
+	private final DatabaseManager manager;
+	private final TestTable table;
+
+	@NoArgsConstructor
+	@AllArgsConstructor
+	public static class TestClass {
+		@Column(key = true)
+		public int id;
+
+		@Column
+		public String name;
+
+		@Column
+		public List<String> tags;
+	}
+
+	@NoArgsConstructor
+	@AllArgsConstructor
+	static class PackageClass {
+		@Column(key = true)
+		int id;
+
+		@Column
+		String name;
+
+		@Column
+		@Version
+		int version;
+	}
+
+	public interface TestTable extends Table<TestClass> {
+		List<TestClass> findByNameOrderById(String name);
+
+		@Query("select count(*) from <table>")
+		long total();
+
+		default long twice() {
+			return total() * 2;
+		}
+	}
+
+	public GeneratedTest() {
+		manager = new DatabaseManager("jdbc:postgresql://localhost:5433/postgres", "postgres", "postgres");
+		table = manager.getTable(TestClass.class, TestClass::new).name("generatedTest").table(TestTable.class).create();
+
+		manager.getDriver().setSqlLogger(new SqlLogger() {
+			@Override
+			public void logBeforeExecution(StatementContext context) {
+				System.out.println(context.getParsedSql().getSql());
+				System.out.println(context.getBinding());
+			}
+		});
+
+		table.deleteAll();
+
+		table.insert(new TestClass(1, "a", List.of("x")));
+		table.insert(new TestClass(2, "a", List.of("y", "z")));
+		table.insert(new TestClass(3, "b", List.of()));
+	}
+
+	@Test
+	public void generated() {
+		assertFalse(Proxy.isProxyClass(table.getClass()));
+	}
+
+	@Test
+	public void methods() {
+		var result = table.findByNameOrderById("a");
+		assertEquals(2, result.size());
+		assertEquals(List.of("y", "z"), result.get(1).tags);
+
+		assertEquals(3, table.total());
+		assertEquals(6, table.twice());
+		assertEquals("b", table.selectOne(Where.equals("id", 3)).orElseThrow().name);
+	}
+
+	@Test
+	public void packagePrivate() {
+		var table = manager.getTable(PackageClass.class, PackageClass::new).name("generatedPackageTest").create();
+		table.deleteAll();
+
+		var object = table.insert(new PackageClass(1, "a", 0));
+		assertThrows(ConflictException.class, () -> table.insert(new PackageClass(1, "b", 0)));
+
+		object.name = "b";
+		table.update(object);
+		assertEquals(1, object.version);
+		assertEquals("b", table.selectOne(Where.equals("id", 1)).orElseThrow().name);
+
+		assertThrows(VersionMismatchException.class, () -> table.update(new PackageClass(1, "c", 0)));
+
+		assertEquals(1, table.delete(object));
+		assertEquals(0, table.getRowCount());
+	}
+}
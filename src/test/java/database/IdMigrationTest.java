@@ -0,0 +1,142 @@
+package database;
+
+import de.mineking.databaseutils.*;
+import de.mineking.javautils.ID;
+import lombok.AllArgsConstructor;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+import org.jdbi.v3.core.statement.SqlLogger;
+import org.jdbi.v3.core.statement.StatementContext;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class IdMigrationTest {
+	private final DatabaseManager manager;
+	private final Table<TestClass> table;
+	private final List<ID> ids = new ArrayList<>();
+
+	@ToString
+	@NoArgsConstructor
+	@AllArgsConstructor
+	private class TestClass implements DataClass<TestClass> {
+		@Column(key = true)
+		public ID id;
+
+		@Column
+		public String name;
+
+		@NotNull
+		@Override
+		public Table<TestClass> getTable() {
+			return table;
+		}
+	}
+
+	public IdMigrationTest() {
+		manager = new DatabaseManager("jdbc:postgresql://localhost:5433/postgres", "postgres", "postgres");
+
+		manager.getDriver().setSqlLogger(new SqlLogger() {
+			@Override
+			public void logBeforeExecution(StatementContext context) {
+				System.out.println(context.getParsedSql().getSql());
+			}
+		});
+
+		manager.getDriver().useHandle(handle -> handle.execute("drop table if exists idMigration"));
+		table = manager.getTable(TestClass.class, TestClass::new).name("idMigration").create();
+
+		for(int i = 0; i < 5; i++) {
+			var id = ID.generate();
+			ids.add(id);
+			table.insert(new TestClass(id, "test" + i));
+		}
+	}
+
+	private Set<Long> converted(String column) {
+		return manager.getDriver().withHandle(handle -> handle.createQuery("select " + column + " from idMigration where " + column + " is not null")
+				.mapTo(long.class)
+				.set()
+		);
+	}
+
+	private Set<Long> expected() {
+		return ids.stream().map(ID::asNumber).collect(Collectors.toSet());
+	}
+
+	@Test
+	public void run() {
+		var updates = new ArrayList<Long>();
+		var count = new IdMigration(table, "id").batchSize(2).onProgress((converted, total) -> {
+			assertEquals(5, total);
+			updates.add(converted);
+		}).run();
+
+		assertEquals(5, count);
+		assertEquals(List.of(2L, 4L, 5L), updates);
+		assertEquals(expected(), converted("id_migration"));
+
+		//The old column is unchanged
+		assertEquals(5, table.selectAll().size());
+	}
+
+	@Test
+	public void resume() {
+		var migration = new IdMigration(table, "id").batchSize(2).onProgress((converted, total) -> {
+			throw new IllegalStateException("interrupted");
+		});
+
+		assertThrows(IllegalStateException.class, migration::run);
+		assertEquals(2, converted("id_migration").size());
+
+		//Already converted rows are skipped
+		assertEquals(3, migration.onProgress((converted, total) -> assertEquals(3, total)).run());
+		assertEquals(expected(), converted("id_migration"));
+	}
+
+	@Test
+	public void swap() {
+		var migration = new IdMigration(table, "id");
+
+		//Rows are not converted yet
+		manager.getDriver().useHandle(handle -> handle.execute("alter table idMigration add column id_migration bigint"));
+		assertThrows(IllegalStateException.class, migration::swap);
+		assertEquals(5, table.selectAll().size());
+
+		//Indexes that use the old column are dropped with it
+		manager.getDriver().useHandle(handle -> handle.execute("create index idMigration_name on idMigration(name, id)"));
+
+		migration.migrate();
+
+		assertEquals(expected(), converted("id"));
+		assertEquals("bigint", manager.getDriver().withHandle(handle -> handle.createQuery("select data_type from information_schema.columns where table_name = 'idmigration' and column_name = 'id'")
+				.mapTo(String.class)
+				.one()
+		));
+
+		//The primary key is restored
+		assertEquals(1, manager.getDriver().withHandle(handle -> handle.createQuery("select count(*) from information_schema.table_constraints where table_name = 'idmigration' and constraint_type = 'PRIMARY KEY'")
+				.mapTo(int.class)
+				.one()
+		));
+		assertEquals(1, manager.getDriver().withHandle(handle -> handle.createQuery("select count(*) from pg_indexes where tablename = 'idmigration' and indexname = 'idmigration_name'")
+				.mapTo(int.class)
+				.one()
+		));
+	}
+
+	@Test
+	public void zero() {
+		manager.getDriver().useHandle(handle -> handle.execute("insert into idMigration(id, name) values('0000000', 'zero')"));
+
+		assertEquals(6, new IdMigration(table, "id").run());
+		assertEquals(6, converted("id_migration").size());
+		assertFalse(converted("id_migration").contains(0L));
+	}
+}
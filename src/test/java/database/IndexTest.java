@@ -0,0 +1,83 @@
+package database;
+
+import de.mineking.databaseutils.*;
+import de.mineking.javautils.ID;
+import lombok.AllArgsConstructor;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+import org.jdbi.v3.core.statement.SqlLogger;
+import org.jdbi.v3.core.statement.StatementContext;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class IndexTest {
+	private final DatabaseManager manager;
+	private final Table<TestClass> table;
+
+	@ToString
+	@NoArgsConstructor
+	@AllArgsConstructor
+	@Index(columns = { "name", "time" }, include = "tags")
+	@Index(name = "indextest_lower_name", expression = "lower(\"name\")", where = "\"name\" is not null")
+	private class TestClass implements DataClass<TestClass> {
+		@Column(key = true)
+		public ID id;
+
+		@Index(unique = true)
+		@Column
+		public String name;
+
+		@Index(method = Index.Method.BRIN, concurrently = true)
+		@Column
+		public Instant time;
+
+		@Index(method = Index.Method.GIN)
+		@Column
+		public List<String> tags;
+
+		@NotNull
+		@Override
+		public Table<TestClass> getTable() {
+			return table;
+		}
+	}
+
+	public IndexTest() {
+		manager = new DatabaseManager("jdbc:postgresql://localhost:5433/postgres", "postgres", "postgres");
+		manager.getDriver().useHandle(handle -> handle.execute("drop table if exists indexTest"));
+
+		table = manager.getTable(TestClass.class, TestClass::new).name("indexTest").create();
+
+		manager.getDriver().setSqlLogger(new SqlLogger() {
+			@Override
+			public void logBeforeExecution(StatementContext context) {
+				System.out.println(context.getParsedSql().getSql());
+			}
+		});
+	}
+
+	private List<String> getIndexes() {
+		return manager.getDriver().withHandle(handle -> handle.createQuery("select indexname from pg_indexes where tablename = 'indextest' order by indexname").mapTo(String.class).list());
+	}
+
+	@Test
+	public void create() {
+		assertEquals(List.of("indextest_lower_name", "indextest_name_idx", "indextest_name_time_idx", "indextest_pkey", "indextest_tags_idx", "indextest_time_idx"), getIndexes());
+	}
+
+	@Test
+	public void reconcile() {
+		manager.getDriver().useHandle(handle -> {
+			handle.execute("drop index indextest_tags_idx");
+			handle.execute("comment on index indextest_name_idx is 'databaseutils:outdated'");
+		});
+
+		table.createIfNotExists();
+		assertEquals(6, getIndexes().size());
+	}
+}
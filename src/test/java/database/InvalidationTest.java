@@ -0,0 +1,84 @@
+package database;
+
+import de.mineking.databaseutils.*;
+import de.mineking.javautils.ID;
+import lombok.AllArgsConstructor;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class InvalidationTest {
+	private final DatabaseManager first;
+	private final DatabaseManager second;
+
+	private final Table<TestClass> firstTable;
+	private final Table<TestClass> secondTable;
+
+	@ToString
+	@NoArgsConstructor
+	@AllArgsConstructor
+	private static class TestClass {
+		@Column(key = true)
+		public ID id;
+
+		@Column
+		public String test;
+	}
+
+	public InvalidationTest() {
+		first = new DatabaseManager("jdbc:postgresql://localhost:5433/postgres", "postgres", "postgres");
+		second = new DatabaseManager("jdbc:postgresql://localhost:5433/postgres", "postgres", "postgres");
+
+		first.enableInvalidation();
+		second.enableInvalidation();
+
+		firstTable = first.getTable(TestClass.class, TestClass::new).name("invalidation").cache(Duration.ofMinutes(1), 100).create();
+		secondTable = second.getTable(TestClass.class, TestClass::new).name("invalidation").cache(Duration.ofMinutes(1), 100).create();
+
+		firstTable.deleteAll();
+	}
+
+	@AfterEach
+	public void close() {
+		first.close();
+		second.close();
+	}
+
+	@Test
+	public void invalidate() throws InterruptedException {
+		assertEquals(0, firstTable.selectAll().size());
+		assertEquals(0, secondTable.selectAll().size());
+
+		secondTable.insert(new TestClass(null, "a"));
+
+		assertEquals(1, secondTable.selectAll().size());
+		assertTrue(await(() -> firstTable.selectAll().size() == 1));
+	}
+
+	@Test
+	public void reconnect() throws InterruptedException {
+		assertEquals(0, firstTable.selectAll().size());
+
+		//Invalidations sent while the listener reconnects are lost
+		first.getDriver().useHandle(handle -> handle.execute("select pg_terminate_backend(pid) from pg_stat_activity where pid <> pg_backend_pid() and query like 'listen%'"));
+		secondTable.insert(new TestClass(null, "a"));
+
+		assertTrue(await(() -> firstTable.selectAll().size() == 1));
+	}
+
+	private static boolean await(BooleanSupplier condition) throws InterruptedException {
+		for(int i = 0; i < 50; i++) {
+			if(condition.getAsBoolean()) return true;
+			Thread.sleep(100);
+		}
+
+		return false;
+	}
+}
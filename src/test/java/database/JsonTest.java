@@ -0,0 +1,102 @@
+package database;
+
+import de.mineking.databaseutils.*;
+import de.mineking.javautils.ID;
+import lombok.AllArgsConstructor;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+import org.jdbi.v3.core.statement.SqlLogger;
+import org.jdbi.v3.core.statement.StatementContext;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class JsonTest {
+	private final DatabaseManager manager;
+	private final Table<TestClass> table;
+	private final Table<TestClass> tracked;
+	private final AtomicInteger updates = new AtomicInteger();
+
+	@ToString
+	@NoArgsConstructor
+	@AllArgsConstructor
+	private class TestClass implements DataClass<TestClass> {
+		@Column(key = true)
+		public ID id;
+
+		@Json(binary = true)
+		@Column
+		public Map<String, Object> data;
+
+		@NotNull
+		@Override
+		public Table<TestClass> getTable() {
+			return table;
+		}
+	}
+
+	public JsonTest() {
+		manager = new DatabaseManager("jdbc:postgresql://localhost:5433/postgres", "postgres", "postgres");
+		table = manager.getTable(TestClass.class, TestClass::new).name("jsonTest").create();
+		tracked = manager.getTable(TestClass.class, TestClass::new).name("jsonTest").dirtyTracking().get();
+
+		manager.getDriver().setSqlLogger(new SqlLogger() {
+			@Override
+			public void logBeforeExecution(StatementContext context) {
+				if(context.getParsedSql().getSql().startsWith("update")) updates.incrementAndGet();
+				System.out.println(context.getParsedSql().getSql());
+				System.out.println(context.getBinding());
+			}
+		});
+
+		table.deleteAll();
+
+		table.insert(new TestClass(null, Map.of("a", 1, "b", "x")));
+		table.insert(new TestClass(null, Map.of("a", 2)));
+		table.insert(new TestClass(null, Map.of("b", "y", "c", Map.of("d", true))));
+	}
+
+	@Test
+	public void read() {
+		assertEquals(2, table.selectOne(Where.jsonContains("data", Map.of("a", 2))).orElseThrow().data.get("a"));
+	}
+
+	@Test
+	public void contains() {
+		assertEquals(1, table.selectMany(Where.jsonContains("data", Map.of("a", 1))).size());
+		assertEquals(1, table.selectMany(Where.jsonContains("data", Map.of("c", Map.of("d", true)))).size());
+	}
+
+	@Test
+	public void hasKey() {
+		assertEquals(2, table.selectMany(Where.jsonHasKey("data", "a")).size());
+		assertEquals(2, table.selectMany(Where.jsonHasKey("data", "b")).size());
+	}
+
+	@Test
+	public void path() {
+		assertEquals(1, table.selectMany(Where.jsonPath("data", "$.a > 1")).size());
+		assertEquals(1, table.selectMany(Where.jsonPathEquals("data", "$.c.d", true)).size());
+		assertEquals(1, table.selectMany(Where.jsonPathEquals("data", "$.b", "y")).size());
+	}
+
+	@Test
+	public void dirtyTracking() {
+		var object = tracked.selectOne(Where.jsonContains("data", Map.of("a", 2))).orElseThrow();
+
+		tracked.update(object); //Nothing changed, so the update is skipped
+		assertEquals(0, updates.get());
+
+		object.data = new HashMap<>(object.data);
+		object.data.put("a", 3);
+		tracked.update(object);
+
+		assertEquals(1, updates.get());
+		assertEquals(1, table.selectMany(Where.jsonContains("data", Map.of("a", 3))).size());
+	}
+}
@@ -0,0 +1,101 @@
+package database;
+
+import de.mineking.databaseutils.*;
+import de.mineking.javautils.ID;
+import lombok.AllArgsConstructor;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+import org.jdbi.v3.core.statement.SqlLogger;
+import org.jdbi.v3.core.statement.StatementContext;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MigrationTest {
+	private final DatabaseManager manager;
+	private Table<TestClass> table;
+
+	@ToString
+	@NoArgsConstructor
+	@AllArgsConstructor
+	private class TestClass implements DataClass<TestClass> {
+		@Column(key = true)
+		public ID id;
+
+		@Column
+		public String name;
+
+		@Column(modifier = "not null default 5")
+		public int count;
+
+		@Column(unique = true)
+		public String code;
+
+		@Column(modifier = "default null")
+		public String note;
+
+		@Column(modifier = "default nextval('migrationTest_sequence')")
+		public long sequence;
+
+		@NotNull
+		@Override
+		public Table<TestClass> getTable() {
+			return table;
+		}
+	}
+
+	public MigrationTest() {
+		manager = new DatabaseManager("jdbc:postgresql://localhost:5433/postgres", "postgres", "postgres");
+
+		manager.getDriver().setSqlLogger(new SqlLogger() {
+			@Override
+			public void logBeforeExecution(StatementContext context) {
+				System.out.println(context.getParsedSql().getSql());
+			}
+		});
+
+		manager.getDriver().useHandle(handle -> {
+			handle.execute("drop table if exists migrationTest");
+			handle.execute("drop sequence if exists migrationTest_sequence");
+			handle.execute("create sequence migrationTest_sequence");
+			handle.execute("create table migrationTest(id text primary key, name integer, old text)");
+			handle.execute("insert into migrationTest(id) values('a'), ('b'), ('c')");
+		});
+	}
+
+	@Test
+	public void plan() {
+		table = manager.getTable(TestClass.class, TestClass::new).name("migrationTest").get();
+		var migration = table.planMigration();
+
+		assertEquals(List.of("old"), migration.getUnknownColumns());
+		assertEquals(1, migration.getMismatches().size());
+		assertFalse(migration.isEmpty());
+
+		//A null default doesn't need a backfill
+		assertTrue(migration.getSteps().stream().anyMatch(s -> s.description().equals("Backfill count")));
+		assertTrue(migration.getSteps().stream().noneMatch(s -> s.description().equals("Backfill note")));
+
+		//Defaults are not evaluated by planning
+		assertTrue(migration.getSteps().stream().anyMatch(s -> s.description().equals("Backfill sequence")));
+		assertFalse(manager.getDriver().withHandle(handle -> handle.createQuery("select is_called from migrationTest_sequence").mapTo(boolean.class).one()));
+
+		assertTrue(migration.toString().contains("limit 10000"));
+		assertFalse(migration.toString().contains("<batch>"));
+
+		//Nothing is changed by planning
+		assertEquals(1, manager.getDriver().withHandle(handle -> handle.createQuery("select count(*) from information_schema.columns where table_name = 'migrationtest' and column_name = 'id'").mapTo(int.class).one()));
+		assertEquals(0, manager.getDriver().withHandle(handle -> handle.createQuery("select count(*) from information_schema.columns where table_name = 'migrationtest' and column_name = 'count'").mapTo(int.class).one()));
+	}
+
+	@Test
+	public void apply() {
+		table = manager.getTable(TestClass.class, TestClass::new).name("migrationTest").migrate().create();
+
+		assertTrue(table.planMigration().isEmpty());
+		assertEquals(3, table.selectMany(Where.equals("count", 5)).size());
+	}
+}
@@ -0,0 +1,129 @@
+package database;
+
+import de.mineking.databaseutils.*;
+import lombok.AllArgsConstructor;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+import org.jdbi.v3.core.statement.SqlLogger;
+import org.jdbi.v3.core.statement.StatementContext;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class NumberTest {
+	private final DatabaseManager manager;
+	private final Table<TestClass> table;
+
+	@ToString
+	@NoArgsConstructor
+	@AllArgsConstructor
+	private class TestClass implements DataClass<TestClass> {
+		@Column(key = true, autoincrement = true)
+		public int id;
+
+		@Column(autoincrement = true)
+		public long sequence;
+
+		@Column
+		public int i;
+
+		@Column
+		public long l;
+
+		@Column
+		public double d;
+
+		@Column
+		public boolean b;
+
+		@Column
+		public Integer boxedInt;
+
+		@Column
+		public Long boxedLong;
+
+		@Column
+		public Double boxedDouble;
+
+		@Column
+		public Boolean boxedBoolean;
+
+		@NotNull
+		@Override
+		public Table<TestClass> getTable() {
+			return table;
+		}
+	}
+
+	public NumberTest() {
+		manager = new DatabaseManager("jdbc:postgresql://localhost:5433/postgres", "postgres", "postgres");
+		manager.getDriver().useHandle(handle -> handle.execute("drop table if exists numberTest"));
+		table = manager.getTable(TestClass.class, TestClass::new).name("numberTest").create();
+
+		manager.getDriver().setSqlLogger(new SqlLogger() {
+			@Override
+			public void logBeforeExecution(StatementContext context) {
+				System.out.println(context.getParsedSql().getSql());
+				System.out.println(context.getBinding());
+			}
+		});
+	}
+
+	@BeforeEach
+	public void reset() {
+		table.deleteAll();
+	}
+
+	@Test
+	public void roundTrip() {
+		var object = table.insert(new TestClass(0, 0, 5, 5_000_000_000L, 0.1, true, 7, 8L, 1.5, false));
+		assertTrue(object.id > 0);
+		assertTrue(object.sequence > 0);
+
+		var result = table.selectOne(Where.equals("id", object.id)).orElseThrow();
+		assertEquals(object.sequence, result.sequence);
+		assertEquals(5, result.i);
+		assertEquals(5_000_000_000L, result.l);
+		assertEquals(0.1, result.d);
+		assertTrue(result.b);
+		assertEquals(7, result.boxedInt);
+		assertEquals(8L, result.boxedLong);
+		assertEquals(1.5, result.boxedDouble);
+		assertEquals(false, result.boxedBoolean);
+	}
+
+	@Test
+	public void nulls() {
+		var object = table.insert(new TestClass(0, 0, 0, 0, 0, false, null, null, null, null));
+		var result = table.selectOne(Where.equals("id", object.id)).orElseThrow();
+
+		assertNull(result.boxedInt);
+		assertNull(result.boxedLong);
+		assertNull(result.boxedDouble);
+		assertNull(result.boxedBoolean);
+
+		assertEquals(0, table.selectMany(Where.equals("boxedInt", null)).size()); //The null is bound, but never equal
+		assertEquals(1, table.selectMany(Where.isNull("boxedInt")).size());
+		assertEquals(1, table.selectMany(Where.isNull("boxedDouble")).size());
+		assertEquals(1, table.selectMany(Where.isNull("boxedBoolean")).size());
+	}
+
+	@Test
+	public void predicates() {
+		var first = table.insert(new TestClass(0, 0, 1, 10L, 0.1, true, 1, 10L, 0.1, true));
+		table.insert(new TestClass(0, 0, 2, 20L, 0.2, false, 2, 20L, 0.2, false));
+
+		assertEquals(1, table.selectMany(Where.equals("i", 1)).size());
+		assertEquals(1, table.selectMany(Where.equals("i", 1L)).size());
+		assertEquals(1, table.selectMany(Where.greater("l", 10)).size());
+		assertEquals(1, table.selectMany(Where.equals("d", 0.1)).size());
+		assertEquals(2, table.selectMany(Where.lowerOrEqual("boxedDouble", 0.2)).size());
+		assertEquals(1, table.selectMany(Where.equals("b", true)).size());
+		assertEquals(1, table.selectMany(Where.equals("boxedBoolean", false)).size());
+
+		assertEquals(1, table.selectMany(Where.equals("id", (long) first.id)).size());
+		assertEquals(1, table.selectMany(Where.equals("sequence", (int) first.sequence)).size());
+	}
+}
@@ -0,0 +1,104 @@
+package database;
+
+import de.mineking.databaseutils.*;
+import de.mineking.javautils.ID;
+import lombok.AllArgsConstructor;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+import org.jdbi.v3.core.statement.SqlLogger;
+import org.jdbi.v3.core.statement.StatementContext;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.TimeZone;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class PartitionTest {
+	private final DatabaseManager manager;
+	private final Table<TestClass> table;
+
+	@ToString
+	@NoArgsConstructor
+	@AllArgsConstructor
+	private class TestClass implements DataClass<TestClass> {
+		@Column(key = true)
+		public ID id;
+
+		@Column(key = true)
+		public Instant created;
+
+		@Column
+		public String text;
+
+		@NotNull
+		@Override
+		public Table<TestClass> getTable() {
+			return table;
+		}
+	}
+
+	public PartitionTest() {
+		manager = new DatabaseManager("jdbc:postgresql://localhost:5433/postgres", "postgres", "postgres");
+		manager.getDriver().useHandle(handle -> handle.execute("drop table if exists partitionTest cascade"));
+
+		table = manager.getTable(TestClass.class, TestClass::new).name("partitionTest")
+				.partitionBy(Partitioning.range("created", Partitioning.Interval.DAY, 2))
+				.create();
+
+		manager.getDriver().setSqlLogger(new SqlLogger() {
+			@Override
+			public void logBeforeExecution(StatementContext context) {
+				System.out.println(context.getParsedSql().getSql());
+			}
+		});
+	}
+
+	private int getPartitionCount() {
+		return manager.getDriver().withHandle(handle -> handle.createQuery("select count(*) from pg_inherits where inhparent = to_regclass('partitionTest')").mapTo(int.class).one());
+	}
+
+	@Test
+	public void partitions() {
+		assertEquals(3, getPartitionCount());
+
+		table.insert(new TestClass(null, Instant.now(), "a"));
+		table.insert(new TestClass(null, Instant.now().plus(1, ChronoUnit.DAYS), "b"));
+
+		assertEquals(1, table.selectMany(Where.greater("created", Instant.now().plus(12, ChronoUnit.HOURS))).size());
+	}
+
+	@Test
+	public void retention() {
+		table.insert(new TestClass(null, Instant.now(), "a"));
+
+		assertTrue(table.dropPartitions(Instant.now().minus(1, ChronoUnit.DAYS)).isEmpty());
+		assertEquals(1, table.dropPartitions(Instant.now().plus(1, ChronoUnit.DAYS).truncatedTo(ChronoUnit.DAYS)).size());
+
+		assertEquals(2, getPartitionCount());
+		assertEquals(0, table.selectAll().size());
+	}
+
+	@Test
+	public void zone() {
+		var zone = TimeZone.getDefault();
+		TimeZone.setDefault(TimeZone.getTimeZone("Pacific/Kiritimati")); //UTC+14, so the local date differs from the UTC date for most of the day
+
+		try {
+			manager.getDriver().useHandle(handle -> handle.execute("drop table if exists partitionZoneTest cascade"));
+			var table = manager.getTable(TestClass.class, TestClass::new).name("partitionZoneTest")
+					.partitionBy(Partitioning.range("created", Partitioning.Interval.DAY, 2))
+					.create();
+
+			table.insert(new TestClass(null, Instant.now(), "a"));
+			table.insert(new TestClass(null, Instant.now().plus(2, ChronoUnit.DAYS), "b"));
+
+			assertEquals(2, table.selectAll().size());
+		} finally {
+			TimeZone.setDefault(zone);
+		}
+	}
+}
@@ -0,0 +1,91 @@
+package database;
+
+import de.mineking.databaseutils.*;
+import de.mineking.javautils.ID;
+import lombok.AllArgsConstructor;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+import org.jdbi.v3.core.statement.SqlLogger;
+import org.jdbi.v3.core.statement.StatementContext;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PreparedQueryTest {
+	private final DatabaseManager manager;
+	private final Table<TestClass> table;
+
+	@ToString
+	@NoArgsConstructor
+	@AllArgsConstructor
+	private class TestClass implements DataClass<TestClass> {
+		@Column(key = true)
+		public ID id;
+
+		@Column
+		public String name;
+
+		@Column
+		public int value;
+
+		@NotNull
+		@Override
+		public Table<TestClass> getTable() {
+			return table;
+		}
+	}
+
+	public PreparedQueryTest() {
+		manager = new DatabaseManager("jdbc:postgresql://localhost:5433/postgres", "postgres", "postgres");
+		table = manager.getTable(TestClass.class, TestClass::new).name("preparedQueryTest").create();
+
+		manager.getDriver().setSqlLogger(new SqlLogger() {
+			@Override
+			public void logBeforeExecution(StatementContext context) {
+				System.out.println(context.getParsedSql().getSql());
+				System.out.println(context.getBinding());
+			}
+		});
+
+		table.deleteAll();
+
+		table.insert(new TestClass(null, "a", 1));
+		table.insert(new TestClass(null, "a", 2));
+		table.insert(new TestClass(null, "b", 3));
+	}
+
+	@Test
+	public void bind() {
+		var query = table.prepare(Where.equals("name", Where.parameter("name")).and(Where.greater("value", Where.parameter("min"))), Order.ascendingBy("value"));
+
+		assertEquals(2, query.bind("name", "a").bind("min", 0).list().size());
+		assertEquals(2, query.bind("name", "a").bind("min", 1).one().orElseThrow().value);
+		assertEquals(1, query.bind("name", "b").bind("min", 0).stream().count());
+	}
+
+	@Test
+	public void one() {
+		var query = table.prepare(Where.equals("name", Where.parameter("name")), Order.descendingBy("value"));
+		assertEquals(2, query.bind("name", "a").one().orElseThrow().value);
+
+		//Orders with their own limit are wrapped
+		var limited = table.prepare(Where.equals("name", Where.parameter("name")), Order.ascendingBy("value").limit(5));
+		assertEquals(1, limited.bind("name", "a").one().orElseThrow().value);
+		assertTrue(limited.bind("name", "c").one().isEmpty());
+	}
+
+	@Test
+	public void constants() {
+		var query = table.prepare(Where.equals("name", "a").and(Where.lower("value", Where.parameter("max"))));
+		assertEquals(1, query.bind("max", 2).list().size());
+	}
+
+	@Test
+	public void unbound() {
+		var query = table.prepare(Where.equals("name", Where.parameter("name")));
+
+		assertThrows(IllegalStateException.class, query::list);
+		assertThrows(IllegalArgumentException.class, () -> query.bind("other", 1));
+	}
+}
@@ -0,0 +1,119 @@
+package database;
+
+import de.mineking.databaseutils.*;
+import de.mineking.javautils.ID;
+import lombok.AllArgsConstructor;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+import org.jdbi.v3.core.statement.SqlLogger;
+import org.jdbi.v3.core.statement.StatementContext;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PrimitiveArrayTest {
+	private final DatabaseManager manager;
+	private final Table<TestClass> table;
+
+	@ToString
+	@NoArgsConstructor
+	@AllArgsConstructor
+	private class TestClass implements DataClass<TestClass> {
+		@Column(key = true)
+		public ID id;
+
+		@Column
+		public int[] ints;
+
+		@Column
+		public long[] longs;
+
+		@Column
+		public double[] doubles;
+
+		@Column
+		public List<Long> list;
+
+		@NotNull
+		@Override
+		public Table<TestClass> getTable() {
+			return table;
+		}
+	}
+
+	public PrimitiveArrayTest() {
+		manager = new DatabaseManager("jdbc:postgresql://localhost:5433/postgres", "postgres", "postgres");
+		table = manager.getTable(TestClass.class, TestClass::new).name("primitiveArrayTest").create();
+
+		manager.getDriver().setSqlLogger(new SqlLogger() {
+			@Override
+			public void logBeforeExecution(StatementContext context) {
+				System.out.println(context.getParsedSql().getSql());
+				System.out.println(context.getBinding());
+			}
+		});
+
+		table.deleteAll();
+	}
+
+	@Test
+	public void roundTrip() {
+		var object = table.insert(new TestClass(null, new int[] { 1, -2, 3 }, new long[] { Long.MAX_VALUE, Long.MIN_VALUE + 1 }, new double[] { 0.5, -1.25 }, List.of(4L, 5L)));
+		var result = table.selectOne(Where.identify(table, object)).orElseThrow();
+
+		assertArrayEquals(new int[] { 1, -2, 3 }, result.ints);
+		assertArrayEquals(new long[] { Long.MAX_VALUE, Long.MIN_VALUE + 1 }, result.longs);
+		assertArrayEquals(new double[] { 0.5, -1.25 }, result.doubles);
+		assertEquals(List.of(4L, 5L), result.list);
+	}
+
+	@Test
+	public void binary() {
+		//Forces the binary representation of the arrays
+		var binary = new DatabaseManager("jdbc:postgresql://localhost:5433/postgres?prepareThreshold=-1", "postgres", "postgres").getTable(TestClass.class, TestClass::new).name("primitiveArrayTest").get();
+
+		var object = table.insert(new TestClass(null, new int[] { 1, -2, 3 }, new long[] { Long.MAX_VALUE, Long.MIN_VALUE + 1 }, new double[] { 0.5, -1.25 }, List.of(4L, 5L)));
+		var result = binary.selectOne(Where.identify(table, object)).orElseThrow();
+
+		assertArrayEquals(new int[] { 1, -2, 3 }, result.ints);
+		assertArrayEquals(new long[] { Long.MAX_VALUE, Long.MIN_VALUE + 1 }, result.longs);
+		assertArrayEquals(new double[] { 0.5, -1.25 }, result.doubles);
+		assertEquals(List.of(4L, 5L), result.list);
+
+		table.insert(new TestClass(null, new int[0], new long[0], new double[0], List.of()));
+		assertTrue(binary.selectAll().stream().anyMatch(o -> o.ints.length == 0));
+	}
+
+	@Test
+	public void empty() {
+		var object = table.insert(new TestClass(null, new int[0], new long[0], new double[0], List.of()));
+		var result = table.selectOne(Where.identify(table, object)).orElseThrow();
+
+		assertEquals(0, result.ints.length);
+		assertEquals(0, result.longs.length);
+		assertTrue(result.list.isEmpty());
+	}
+
+	@Test
+	public void dirtyTracking() {
+		var tracked = manager.getTable(TestClass.class, TestClass::new).name("primitiveArrayTest").dirtyTracking().get();
+
+		var object = table.insert(new TestClass(null, new int[] { 1 }, new long[] { 2 }, new double[] { 3 }, List.of(4L)));
+		var loaded = tracked.selectOne(Where.identify(table, object)).orElseThrow();
+
+		//In-place modifications have to be detected as changes
+		loaded.longs[0] = 5;
+		tracked.update(loaded);
+
+		assertArrayEquals(new long[] { 5 }, table.selectOne(Where.identify(table, object)).orElseThrow().longs);
+	}
+
+	@Test
+	public void contains() {
+		table.insert(new TestClass(null, new int[] { 7 }, new long[] { 8 }, new double[0], List.of(9L)));
+		assertEquals(1, table.selectMany(Where.fieldContainsValue("longs", 8L)).size());
+	}
+}
@@ -0,0 +1,142 @@
+package database;
+
+import de.mineking.databaseutils.*;
+import de.mineking.javautils.ID;
+import lombok.AllArgsConstructor;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+import org.jdbi.v3.core.statement.SqlLogger;
+import org.jdbi.v3.core.statement.StatementContext;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class QueryMethodTest {
+	private final DatabaseManager manager;
+	private final TestTable table;
+
+	@ToString
+	@NoArgsConstructor
+	@AllArgsConstructor
+	private class TestClass implements DataClass<TestClass> {
+		@Column(key = true)
+		public ID id;
+
+		@Column
+		public String name;
+
+		@Column
+		public int value;
+
+		@NotNull
+		@Override
+		public Table<TestClass> getTable() {
+			return table;
+		}
+	}
+
+	public interface TestTable extends Table<TestClass> {
+		List<TestClass> findByNameOrderByValueDesc(String name);
+
+		Optional<TestClass> findFirstByValueGreaterThanOrderByValue(int value);
+
+		TestClass getByNameAndValue(String name, int value);
+
+		List<TestClass> findByValueBetween(int min, int max);
+
+		List<TestClass> findByNameIn(List<String> names);
+
+		int countByName(String name);
+
+		boolean existsByValue(int value);
+
+		int deleteByName(String name);
+
+		@Query("select sum(value) from <table> where name = :name")
+		long sumByName(String name);
+
+		@Query("update <table> set value = value + :amount where name = :name")
+		int increment(String name, int amount);
+
+		@Query("select * from <table> where value >= :value::int order by value")
+		Stream<TestClass> streamFrom(int value);
+
+		default int sum() {
+			return (int) (sumByName("a") + sumByName("b"));
+		}
+	}
+
+	public QueryMethodTest() {
+		manager = new DatabaseManager("jdbc:postgresql://localhost:5433/postgres", "postgres", "postgres");
+		table = manager.getTable(TestClass.class, TestClass::new).name("queryMethodTest").table(TestTable.class).create();
+
+		manager.getDriver().setSqlLogger(new SqlLogger() {
+			@Override
+			public void logBeforeExecution(StatementContext context) {
+				System.out.println(context.getParsedSql().getSql());
+				System.out.println(context.getBinding());
+			}
+		});
+
+		table.deleteAll();
+
+		table.insert(new TestClass(null, "a", 1));
+		table.insert(new TestClass(null, "a", 2));
+		table.insert(new TestClass(null, "b", 3));
+	}
+
+	@Test
+	public void derived() {
+		assertEquals(List.of(2, 1), table.findByNameOrderByValueDesc("a").stream().map(o -> o.value).toList());
+		assertEquals(2, table.findFirstByValueGreaterThanOrderByValue(1).orElseThrow().value);
+		assertTrue(table.findFirstByValueGreaterThanOrderByValue(3).isEmpty());
+		assertEquals(3, table.getByNameAndValue("b", 3).value);
+		assertNull(table.getByNameAndValue("b", 1));
+		assertEquals(2, table.findByValueBetween(2, 3).size());
+		assertEquals(3, table.findByNameIn(List.of("a", "b")).size());
+		assertEquals(2, table.countByName("a"));
+		assertTrue(table.existsByValue(3));
+		assertFalse(table.existsByValue(4));
+
+		assertEquals(1, table.deleteByName("b"));
+		assertEquals(2, table.getRowCount());
+	}
+
+	@Test
+	public void query() {
+		assertEquals(3, table.sumByName("a"));
+		assertEquals(2, table.increment("a", 10));
+		assertEquals(23, table.sumByName("a"));
+		assertEquals(26, table.sum());
+
+		try(var stream = table.streamFrom(2)) {
+			assertEquals(List.of(3, 11, 12), stream.map(o -> o.value).toList());
+		}
+	}
+
+	public interface InvalidTable extends Table<TestClass> {
+		List<TestClass> findByUnknown(String value);
+	}
+
+	public interface InvalidDeleteTable extends Table<TestClass> {
+		int deleteFirstByName(String name);
+	}
+
+	public interface InvalidParameterTable extends Table<TestClass> {
+		//Only ':names' and the cast to 'name' are in the query, but not the parameter
+		@Query("select * from <table> where name = any(:names) and value::name is not null")
+		List<TestClass> findByName(String name);
+	}
+
+	@Test
+	public void invalid() {
+		assertThrows(IllegalStateException.class, () -> manager.getTable(TestClass.class, TestClass::new).name("queryMethodTest").table(InvalidTable.class).create());
+		assertThrows(IllegalStateException.class, () -> manager.getTable(TestClass.class, TestClass::new).name("queryMethodTest").table(InvalidDeleteTable.class).create());
+		assertThrows(IllegalStateException.class, () -> manager.getTable(TestClass.class, TestClass::new).name("queryMethodTest").table(InvalidParameterTable.class).create());
+	}
+}
@@ -0,0 +1,110 @@
+package database;
+
+import de.mineking.databaseutils.*;
+import lombok.AllArgsConstructor;
+import lombok.NoArgsConstructor;
+import org.jdbi.v3.core.Jdbi;
+import org.jdbi.v3.core.statement.SqlLogger;
+import org.jdbi.v3.core.statement.StatementContext;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ReplicaTest {
+	private final DatabaseManager manager;
+	private final Table<TestClass> table;
+	private final Table<TestClass> replica;
+
+	@NoArgsConstructor
+	@AllArgsConstructor
+	public static class TestClass {
+		@Column(key = true)
+		public int id;
+
+		@Column
+		public String source;
+	}
+
+	public ReplicaTest() {
+		//A second database stands in for the replica, it contains different rows to see where reads are executed
+		var primary = Jdbi.create("jdbc:postgresql://localhost:5433/postgres", "postgres", "postgres");
+		if(primary.withHandle(handle -> handle.createQuery("select count(*) from pg_database where datname = 'replica'").mapTo(int.class).one()) == 0) primary.useHandle(handle -> handle.execute("create database replica"));
+
+		var replicaManager = new DatabaseManager("jdbc:postgresql://localhost:5433/replica", "postgres", "postgres");
+		replica = replicaManager.getTable(TestClass.class, TestClass::new).name("replicaTest").create();
+
+		manager = new DatabaseManager("jdbc:postgresql://localhost:5433/postgres", "postgres", "postgres");
+		table = manager.getTable(TestClass.class, TestClass::new).name("replicaTest").create();
+
+		manager.getDriver().setSqlLogger(new SqlLogger() {
+			@Override
+			public void logBeforeExecution(StatementContext context) {
+				System.out.println(context.getParsedSql().getSql());
+				System.out.println(context.getBinding());
+			}
+		});
+
+		table.deleteAll();
+		replica.deleteAll();
+
+		table.insert(new TestClass(1, "primary"));
+		replica.insert(new TestClass(1, "replica"));
+		replica.insert(new TestClass(2, "replica"));
+
+		manager.getReplicas().add(replicaManager.getDriver());
+	}
+
+	@Test
+	public void reads() {
+		assertEquals(2, table.getRowCount());
+		assertEquals("replica", table.selectOne(Where.equals("id", 1)).orElseThrow().source);
+		assertEquals(2, table.selectAll().size());
+
+		try(var stream = table.prepare(Where.empty()).stream()) {
+			assertEquals(2, stream.count());
+		}
+	}
+
+	@Test
+	public void writes() {
+		table.update(new TestClass(1, "updated"));
+
+		assertEquals("replica", table.selectOne(Where.equals("id", 1)).orElseThrow().source);
+		assertEquals("updated", manager.getDriver().withHandle(handle -> handle.createQuery("select source from replicaTest where id = 1").mapTo(String.class).one()));
+	}
+
+	@Test
+	public void readYourWrites() {
+		manager.getReplicas().readYourWrites(Duration.ofMinutes(1));
+
+		assertEquals(2, table.getRowCount());
+
+		table.insert(new TestClass(3, "primary"));
+		assertEquals(List.of(1, 3), table.selectAll(Order.ascendingBy("id")).stream().map(o -> o.id).toList());
+
+		manager.getReplicas().readYourWrites(Duration.ZERO);
+		assertEquals(2, table.getRowCount());
+	}
+
+	@Test
+	public void cache() {
+		//Cached results are always loaded from the primary
+		var cached = manager.getTable(TestClass.class, TestClass::new).name("replicaTest").cache(Duration.ofMinutes(1), 100).get();
+		assertEquals(List.of("primary"), cached.selectAll().stream().map(o -> o.source).toList());
+
+		//The write invalidates the cache, and the result is loaded from the primary again
+		cached.update(new TestClass(1, "updated"));
+		assertEquals(List.of("updated"), cached.selectAll().stream().map(o -> o.source).toList());
+	}
+
+	@Test
+	public void fallback() {
+		manager.getReplicas().remove(manager.getReplicas().getDrivers().get(0));
+		manager.getReplicas().add(Jdbi.create("jdbc:postgresql://localhost:1/replica", "postgres", "postgres"));
+
+		assertEquals(1, table.getRowCount());
+	}
+}
@@ -0,0 +1,78 @@
+package database;
+
+import de.mineking.databaseutils.*;
+import de.mineking.javautils.ID;
+import lombok.AllArgsConstructor;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+import org.jdbi.v3.core.statement.SqlLogger;
+import org.jdbi.v3.core.statement.StatementContext;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class SearchTest {
+	private final DatabaseManager manager;
+	private final Table<TestClass> table;
+
+	@ToString
+	@NoArgsConstructor
+	@AllArgsConstructor
+	private class TestClass implements DataClass<TestClass> {
+		@Column(key = true)
+		public ID id;
+
+		@Column(textSearch = "english")
+		public String text;
+
+		@Column(trigram = true, trigramMethod = Index.Method.GIST)
+		public String name;
+
+		@NotNull
+		@Override
+		public Table<TestClass> getTable() {
+			return table;
+		}
+	}
+
+	public SearchTest() {
+		manager = new DatabaseManager("jdbc:postgresql://localhost:5433/postgres", "postgres", "postgres");
+		table = manager.getTable(TestClass.class, TestClass::new).name("searchTest").create();
+
+		manager.getDriver().setSqlLogger(new SqlLogger() {
+			@Override
+			public void logBeforeExecution(StatementContext context) {
+				System.out.println(context.getParsedSql().getSql());
+				System.out.println(context.getBinding());
+			}
+		});
+
+		table.deleteAll();
+
+		table.insert(new TestClass(null, "The quick brown fox jumps over the lazy dog", "Database"));
+		table.insert(new TestClass(null, "Foxes are running through the forest", "Databases"));
+		table.insert(new TestClass(null, "A dog sleeps all day", "Document"));
+	}
+
+	@Test
+	public void matches() {
+		assertEquals(2, table.selectMany(Where.matches("text", "english", "fox")).size());
+		assertEquals(1, table.selectMany(Where.matches("text", "english", "fox -quick")).size());
+		assertEquals(2, table.selectMany(Where.matches("text", "english", "dog")).size());
+	}
+
+	@Test
+	public void rank() {
+		var result = table.selectMany(Where.matches("text", "english", "dog"), Order.rankedBy("text", "english", "dog's day"));
+		assertEquals("A dog sleeps all day", result.get(0).text);
+	}
+
+	@Test
+	public void similar() {
+		assertEquals(2, table.selectMany(Where.similar("name", "Databse")).size());
+		assertEquals("Database", table.selectMany(Where.empty(), Order.similarityTo("name", "Databse").limit(1)).get(0).name);
+
+		assertEquals(1, manager.getDriver().withHandle(handle -> handle.createQuery("select count(*) from pg_indexes where tablename = 'searchtest' and indexdef like '%gist_trgm_ops%'").mapTo(int.class).one()));
+	}
+}
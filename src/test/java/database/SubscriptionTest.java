@@ -0,0 +1,86 @@
+package database;
+
+import de.mineking.databaseutils.*;
+import de.mineking.javautils.ID;
+import lombok.AllArgsConstructor;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SubscriptionTest {
+	private final DatabaseManager manager;
+	private final Table<TestClass> table;
+
+	@ToString
+	@NoArgsConstructor
+	@AllArgsConstructor
+	private static class TestClass {
+		@Column(key = true)
+		public ID id;
+
+		@Column
+		public String test;
+	}
+
+	public SubscriptionTest() {
+		manager = new DatabaseManager("jdbc:postgresql://localhost:5433/postgres", "postgres", "postgres");
+		table = manager.getTable(TestClass.class, TestClass::new).name("subscription").notifyChanges().create();
+
+		table.deleteAll();
+	}
+
+	@AfterEach
+	public void close() {
+		manager.close();
+	}
+
+	@Test
+	public void subscribe() throws Exception {
+		BlockingQueue<ChangeEvent<TestClass>> events = new LinkedBlockingQueue<>();
+
+		try(var subscription = table.subscribe(Where.equals("test", "a"), events::add)) {
+			subscription.getListening().get(5, TimeUnit.SECONDS);
+
+			var object = table.insert(new TestClass(null, "a"));
+			table.insert(new TestClass(null, "b"));
+
+			var insert = events.poll(5, TimeUnit.SECONDS);
+			assertNotNull(insert);
+			assertEquals(ChangeEvent.Type.INSERT, insert.getType());
+			assertEquals("a", insert.getObject().test);
+
+			table.delete(object);
+
+			var delete = events.poll(5, TimeUnit.SECONDS);
+			assertNotNull(delete);
+			assertEquals(ChangeEvent.Type.DELETE, delete.getType());
+			assertNull(delete.getObject());
+		}
+	}
+
+	@Test
+	public void order() throws Exception {
+		BlockingQueue<ChangeEvent<TestClass>> events = new LinkedBlockingQueue<>();
+
+		try(var subscription = table.subscribe(Where.equals("test", "a"), events::add)) {
+			subscription.getListening().get(5, TimeUnit.SECONDS);
+
+			var ids = new ArrayList<ID>();
+			for(int i = 0; i < 20; i++) ids.add(table.insert(new TestClass(null, "a")).id);
+
+			for(var id : ids) {
+				var event = events.poll(5, TimeUnit.SECONDS);
+				assertNotNull(event);
+				assertEquals(id.asString(), event.getObject().id.asString());
+			}
+		}
+	}
+}
@@ -0,0 +1,88 @@
+package database;
+
+import de.mineking.databaseutils.*;
+import de.mineking.javautils.ID;
+import lombok.AllArgsConstructor;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+import org.jdbi.v3.core.statement.SqlLogger;
+import org.jdbi.v3.core.statement.StatementContext;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TemporaryTest {
+	private final DatabaseManager manager;
+	private final Table<TestClass> unlogged;
+	private final Table<TestClass> temporary;
+
+	@ToString
+	@NoArgsConstructor
+	@AllArgsConstructor
+	private class TestClass implements DataClass<TestClass> {
+		@Column(key = true)
+		public ID id;
+
+		@Column
+		public String value;
+
+		@NotNull
+		@Override
+		public Table<TestClass> getTable() {
+			return unlogged;
+		}
+	}
+
+	public TemporaryTest() {
+		manager = new DatabaseManager("jdbc:postgresql://localhost:5433/postgres", "postgres", "postgres");
+		manager.getDriver().useHandle(handle -> handle.execute("drop table if exists unloggedTest"));
+
+		unlogged = manager.getTable(TestClass.class, TestClass::new).name("unloggedTest").unlogged().create();
+		temporary = manager.getTable(TestClass.class, TestClass::new).name("temporaryTest").temporary().create();
+
+		manager.getDriver().setSqlLogger(new SqlLogger() {
+			@Override
+			public void logBeforeExecution(StatementContext context) {
+				System.out.println(context.getParsedSql().getSql());
+			}
+		});
+	}
+
+	private String getPersistence(String table) {
+		return manager.getDriver().withHandle(handle -> handle.createQuery("select relpersistence from pg_class where relname = :name").bind("name", table).mapTo(String.class).one());
+	}
+
+	@Test
+	public void unlogged() {
+		assertEquals("u", getPersistence("unloggedtest"));
+
+		unlogged.setLogged(true);
+		assertEquals("p", getPersistence("unloggedtest"));
+	}
+
+	@Test
+	public void temporary() {
+		temporary.insert(new TestClass(null, "a"));
+		assertEquals(1, temporary.selectAll().size());
+
+		//Other connections don't see the table
+		assertEquals(0, manager.getDriver().withHandle(handle -> handle.createQuery("select count(*) from pg_tables where tablename = 'temporarytest' and schemaname = 'public'").mapTo(int.class).one()));
+	}
+
+	@Test
+	public void connectionLost() {
+		temporary.insert(new TestClass(null, "a"));
+
+		manager.getDriver().useHandle(handle -> handle.execute("select pg_terminate_backend(pid) from pg_stat_activity where query ilike '%temporaryTest%' and pid <> pg_backend_pid()"));
+
+		assertThrows(Exception.class, temporary::selectAll); //The statement that finds the broken connection
+		assertThrows(IllegalStateException.class, temporary::selectAll);
+	}
+
+	@Test
+	public void closed() {
+		manager.close();
+		assertThrows(IllegalStateException.class, temporary::selectAll);
+	}
+}
@@ -0,0 +1,104 @@
+package database;
+
+import de.mineking.databaseutils.*;
+import de.mineking.javautils.ID;
+import lombok.AllArgsConstructor;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+import org.jdbi.v3.core.statement.SqlLogger;
+import org.jdbi.v3.core.statement.StatementContext;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.Test;
+
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class TypeTest {
+	private final DatabaseManager manager;
+	private final Table<TestClass> table;
+
+	private enum TestEnum {
+		A, B, C
+	}
+
+	@ToString
+	@NoArgsConstructor
+	@AllArgsConstructor
+	private class TestClass implements DataClass<TestClass> {
+		@Column(key = true)
+		public ID id;
+
+		@Column
+		public UUID uuid;
+
+		@Column
+		public OffsetDateTime time;
+
+		@Column
+		public TestEnum name;
+
+		@Ordinal
+		@Column
+		public TestEnum ordinal;
+
+		@NotNull
+		@Override
+		public Table<TestClass> getTable() {
+			return table;
+		}
+	}
+
+	public TypeTest() {
+		manager = new DatabaseManager("jdbc:postgresql://localhost:5433/postgres", "postgres", "postgres");
+		table = manager.getTable(TestClass.class, TestClass::new).name("typeTest").create();
+
+		manager.getDriver().setSqlLogger(new SqlLogger() {
+			@Override
+			public void logBeforeExecution(StatementContext context) {
+				System.out.println(context.getParsedSql().getSql());
+				System.out.println(context.getBinding());
+			}
+		});
+
+		table.deleteAll();
+	}
+
+	@Test
+	public void roundTrip() {
+		var uuid = UUID.randomUUID();
+		var time = OffsetDateTime.of(2024, 1, 2, 3, 4, 5, 0, ZoneOffset.ofHours(2));
+
+		var object = table.insert(new TestClass(null, uuid, time, TestEnum.B, TestEnum.C));
+		var result = table.selectOne(Where.identify(table, object)).orElseThrow();
+
+		assertEquals(uuid, result.uuid);
+		assertEquals(time.toInstant(), result.time.toInstant());
+		assertEquals(TestEnum.B, result.name);
+		assertEquals(TestEnum.C, result.ordinal);
+
+		assertEquals(1, table.selectMany(Where.equals("ordinal", TestEnum.C)).size());
+		assertEquals(0, table.selectMany(Where.equals("ordinal", TestEnum.A)).size());
+	}
+
+	@Test
+	public void temporarySet() {
+		var time = OffsetDateTime.of(2024, 1, 2, 3, 4, 5, 0, ZoneOffset.ofHours(2));
+		table.insert(new TestClass(null, UUID.randomUUID(), time, TestEnum.A, TestEnum.A));
+
+		var threshold = DatabaseManager.TEMPORARY_TABLE_THRESHOLD;
+
+		try {
+			DatabaseManager.TEMPORARY_TABLE_THRESHOLD = 2;
+
+			//Timestamps are not loaded through their toString representation
+			assertEquals(1, table.selectMany(Where.valueContainsField("time", List.of(time, time.plusHours(1)))).size());
+			assertEquals(1, table.selectMany(Where.valueContainsField("name", List.of(TestEnum.A, TestEnum.B))).size());
+		} finally {
+			DatabaseManager.TEMPORARY_TABLE_THRESHOLD = threshold;
+		}
+	}
+}
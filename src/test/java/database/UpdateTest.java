@@ -9,14 +9,20 @@ import lombok.ToString;
 import org.jdbi.v3.core.statement.SqlLogger;
 import org.jdbi.v3.core.statement.StatementContext;
 import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.time.Duration;
+import java.util.ArrayList;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 public class UpdateTest {
 	private final DatabaseManager manager;
 	private final Table<TestClass> table;
+	private final Table<TestClass> tracked;
+	private final Table<TestClass> buffered;
 
 	@ToString
 	@NoArgsConstructor
@@ -41,6 +47,8 @@ public class UpdateTest {
 	public UpdateTest() {
 		manager = new DatabaseManager("jdbc:postgresql://localhost:5433/postgres", "postgres", "postgres");
 		table = manager.getTable(TestClass.class, TestClass::new).name("update").create();
+		tracked = manager.getTable(TestClass.class, TestClass::new).name("update").dirtyTracking().get();
+		buffered = manager.getTable(TestClass.class, TestClass::new).name("update").writeBehind(Duration.ofMinutes(1), 100, 1000).get();
 
 		manager.getDriver().setSqlLogger(new SqlLogger() {
 			@Override
@@ -56,6 +64,12 @@ public class UpdateTest {
 		table.deleteAll();
 	}
 
+	@AfterEach
+	public void shutdown() {
+		//Stops the write-behind flusher of the buffered tables
+		manager.close();
+	}
+
 	@Test
 	public void update() {
 		var test = new TestClass();
@@ -68,6 +82,134 @@ public class UpdateTest {
 		assertEquals(table.selectOne(Where.equals("id", test.id)).get().test, "abc");
 	}
 
+	@Test
+	public void dirtyTracking() {
+		var test = new TestClass();
+		test.insert();
+
+		var object = tracked.selectOne(Where.equals("id", test.id)).get();
+		table.updateField(Where.equals("id", test.id), "test", "abc");
+
+		tracked.update(object); //Nothing changed, so the update is skipped
+		assertEquals(table.selectOne(Where.equals("id", test.id)).get().test, "abc");
+
+		object.x = 5;
+		tracked.update(object); //Only x is written
+		assertEquals(table.selectOne(Where.equals("id", test.id)).get().test, "abc");
+		assertEquals(table.selectOne(Where.equals("id", test.id)).get().x, 5);
+	}
+
+	@Test
+	public void writeBehind() {
+		var test = new TestClass();
+		test.insert();
+
+		test.test = "abc";
+		buffered.update(test);
+
+		test.x = 5;
+		buffered.update(test);
+
+		assertNull(table.selectOne(Where.equals("id", test.id)).get().test);
+
+		buffered.flush();
+		assertEquals(table.selectOne(Where.equals("id", test.id)).get().test, "abc");
+		assertEquals(table.selectOne(Where.equals("id", test.id)).get().x, 5);
+	}
+
+	@Test
+	public void writeBehindDelete() {
+		var failed = new ArrayList<TestClass>();
+		var buffered = manager.getTable(TestClass.class, TestClass::new).name("update").writeBehind(Duration.ofMinutes(1), 100, 1000, (object, e) -> failed.add(object)).get();
+
+		var test = new TestClass(null, "abc", 1);
+		test.insert();
+
+		//The buffered update is written before the delete, so the row stays deleted
+		test.test = "def";
+		buffered.update(test);
+		buffered.delete(Where.equals("id", test.id));
+
+		buffered.flush();
+		assertTrue(table.selectOne(Where.equals("id", test.id)).isEmpty());
+
+		//Buffered updates of deleted rows don't insert them again
+		test.test = "ghi";
+		buffered.update(test);
+		table.delete(Where.equals("id", test.id));
+
+		buffered.flush();
+		assertTrue(table.selectOne(Where.equals("id", test.id)).isEmpty());
+		assertEquals(1, failed.size());
+	}
+
+	@Test
+	public void writeBehindAssignment() {
+		var test = new TestClass(null, "abc", 1);
+		test.insert();
+
+		test.test = "def";
+		buffered.update(test);
+		buffered.update(Where.equals("id", test.id), Assignment.increment("x", 5));
+
+		buffered.flush();
+		assertEquals(6, table.selectOne(Where.equals("id", test.id)).get().x);
+		assertEquals("def", table.selectOne(Where.equals("id", test.id)).get().test);
+	}
+
+	@Test
+	public void close() {
+		var test = new TestClass();
+		test.insert();
+
+		test.test = "abc";
+		buffered.update(test);
+
+		buffered.close(); //Flushes the buffer
+		assertEquals(table.selectOne(Where.equals("id", test.id)).get().test, "abc");
+	}
+
+	@Test
+	public void writeBehindFailure() {
+		var failed = new ArrayList<TestClass>();
+		var buffered = manager.getTable(TestClass.class, TestClass::new).name("update").writeBehind(Duration.ofMinutes(1), 100, 1000, (object, e) -> failed.add(object)).get();
+
+		var test1 = new TestClass(null, "abc", 1);
+		test1.insert();
+
+		var test2 = new TestClass(null, "def", 2);
+		test2.insert();
+
+		test2.test = "abc";
+		buffered.update(test2);
+		buffered.flush();
+
+		assertEquals(1, failed.size());
+		assertSame(test2, failed.get(0));
+		assertEquals(table.selectOne(Where.equals("id", test2.id)).get().test, "def");
+
+		//Updates after closing are written immediately
+		manager.close();
+
+		test2.test = "ghi";
+		buffered.update(test2);
+		assertEquals(table.selectOne(Where.equals("id", test2.id)).get().test, "ghi");
+	}
+
+	@Test
+	public void assignment() {
+		var test = new TestClass();
+		test.insert();
+
+		assertEquals(1, table.update(Where.equals("id", test.id), Assignment.increment("x", 5).andSet("test", "abc")));
+		assertEquals(table.selectOne(Where.equals("id", test.id)).get().x, 5);
+
+		var updated = table.updateReturning(Where.equals("id", test.id), Assignment.decrement("x", 2));
+		assertEquals(1, updated.size());
+		assertEquals(updated.get(0).x, 3);
+		assertEquals(updated.get(0).test, "abc");
+	}
+
 	@Test
 	public void updateConflict() {
 		var test1 = new TestClass();
@@ -0,0 +1,85 @@
+package database;
+
+import de.mineking.databaseutils.*;
+import de.mineking.databaseutils.exception.VersionMismatchException;
+import de.mineking.javautils.ID;
+import lombok.AllArgsConstructor;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+import org.jdbi.v3.core.statement.SqlLogger;
+import org.jdbi.v3.core.statement.StatementContext;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class VersionTest {
+	private final DatabaseManager manager;
+	private final Table<TestClass> table;
+
+	@ToString
+	@NoArgsConstructor
+	@AllArgsConstructor
+	private class TestClass implements DataClass<TestClass> {
+		@Column(key = true)
+		public ID id;
+
+		@Column
+		public String test;
+
+		@Version
+		@Column
+		public int version;
+
+		@NotNull
+		@Override
+		public Table<TestClass> getTable() {
+			return table;
+		}
+	}
+
+	public VersionTest() {
+		manager = new DatabaseManager("jdbc:postgresql://localhost:5433/postgres", "postgres", "postgres");
+		table = manager.getTable(TestClass.class, TestClass::new).name("version").create();
+
+		manager.getDriver().setSqlLogger(new SqlLogger() {
+			@Override
+			public void logBeforeExecution(StatementContext context) {
+				System.out.println(context.getParsedSql().getSql());
+				System.out.println(context.getBinding());
+			}
+		});
+	}
+
+	@BeforeEach
+	public void reset() {
+		table.deleteAll();
+	}
+
+	@Test
+	public void update() {
+		var test = new TestClass();
+		test.insert();
+
+		var first = table.selectOne(Where.equals("id", test.id)).get();
+		var second = table.selectOne(Where.equals("id", test.id)).get();
+
+		first.test = "abc";
+		first.update();
+		assertEquals(1, first.version);
+
+		second.test = "def";
+		assertThrows(VersionMismatchException.class, second::update);
+		assertThrows(VersionMismatchException.class, second::delete);
+
+		assertTrue(first.delete());
+	}
+
+	@Test
+	public void writeBehind() {
+		assertThrows(IllegalStateException.class, () -> manager.getTable(TestClass.class, TestClass::new).name("version").writeBehind(Duration.ofMinutes(1), 100, 1000).get());
+	}
+}
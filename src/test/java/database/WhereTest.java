@@ -28,6 +28,7 @@ public class WhereTest {
 		@Column
 		public String test;
 
+		@Index(method = Index.Method.GIN)
 		@Column
 		public List<String> array;
 
@@ -70,6 +71,25 @@ public class WhereTest {
 		assertEquals(5, table.selectMany(Where.valueContainsField("test", List.of("a", "b", "c"))).size());
 	}
 
+	@Test
+	public void largeIn() {
+		var unnest = DatabaseManager.UNNEST_THRESHOLD;
+		var temporary = DatabaseManager.TEMPORARY_TABLE_THRESHOLD;
+
+		try {
+			DatabaseManager.UNNEST_THRESHOLD = 2;
+			DatabaseManager.TEMPORARY_TABLE_THRESHOLD = 3;
+
+			assertEquals(2, table.selectMany(Where.valueContainsField("test", List.of("a"))).size());
+			assertEquals(4, table.selectMany(Where.valueContainsField("test", List.of("a", "b"))).size());
+			assertEquals(5, table.selectMany(Where.valueContainsField("test", List.of("a", "b", "c"))).size());
+			assertEquals(5, table.getRowCount(Where.valueContainsField("test", List.of("a", "b", "c", "x\ty"))));
+		} finally {
+			DatabaseManager.UNNEST_THRESHOLD = unnest;
+			DatabaseManager.TEMPORARY_TABLE_THRESHOLD = temporary;
+		}
+	}
+
 	@Test
 	public void between() {
 		assertEquals(2, table.selectMany(Where.between("test", "a", "a")).size());
@@ -84,4 +104,22 @@ public class WhereTest {
 		assertEquals(4, table.selectMany(Where.fieldContainsValue("array", "c")).size());
 		assertEquals(2, table.selectMany(Where.fieldContainsValue("array", "d")).size());
 	}
+
+	@Test
+	public void arrayContains() {
+		assertEquals(3, table.selectMany(Where.arrayContains("array", "a")).size());
+		assertEquals(1, table.selectMany(Where.arrayContains("array", "a", "c")).size());
+		assertEquals(0, table.selectMany(Where.arrayContains("array", "a", "d")).size());
+	}
+
+	@Test
+	public void arrayOverlaps() {
+		assertEquals(5, table.selectMany(Where.arrayOverlaps("array", List.of("a", "d"))).size());
+		assertEquals(0, table.selectMany(Where.arrayOverlaps("array", List.of())).size());
+	}
+
+	@Test
+	public void arrayContainedBy() {
+		assertEquals(3, table.selectMany(Where.arrayContainedBy("array", "a", "c")).size());
+	}
 }